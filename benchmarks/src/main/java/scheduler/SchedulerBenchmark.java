@@ -0,0 +1,130 @@
+package scheduler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// ==========================================
+// Scheduler Benchmarks (JMH)
+// ==========================================
+// One benchmark per simulator plus the workload parser, at 10 to 1M processes.
+// The simulators run straight on a ProcessTable, so nothing is printed and the
+// same table is reset and replayed every invocation. The "processes" counter
+// reports processes/sec; run with "-prof gc" to get the allocation rate.
+//
+// java -jar benchmarks/target/benchmarks.jar -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class SchedulerBenchmark {
+
+    static final long SEED = 42;
+    static final int CONTEXT_SWITCH = 1;
+    static final int RR_QUANTUM = 4;
+    static final int AGING_INTERVAL = 5;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    int size;
+
+    ProcessTable table;
+    Path workloadFile;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long processes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        List<CPUScheduler.Process> processes = workload(size, SEED);
+        table = ProcessTable.of(processes);
+        workloadFile = Files.createTempFile("workload-" + size + "-", ".json");
+        writeJson(processes, workloadFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(workloadFile);
+    }
+
+    @Benchmark
+    public int sjf(Counters c) {
+        CPUScheduler.simulateSJF(table, CONTEXT_SWITCH);
+        c.processes += size;
+        return table.timeline.size();
+    }
+
+    @Benchmark
+    public int rr(Counters c) {
+        CPUScheduler.simulateRR(table, CONTEXT_SWITCH, RR_QUANTUM);
+        c.processes += size;
+        return table.timeline.size();
+    }
+
+    @Benchmark
+    public int priority(Counters c) {
+        CPUScheduler.simulatePriority(table, CONTEXT_SWITCH, AGING_INTERVAL);
+        c.processes += size;
+        return table.timeline.size();
+    }
+
+    @Benchmark
+    public int ag(Counters c) {
+        CPUScheduler.simulateAG(table);
+        c.processes += size;
+        return table.timeline.size();
+    }
+
+    @Benchmark
+    public CPUScheduler.Workload parse(Counters c) throws IOException {
+        CPUScheduler.Workload w = WorkloadParser.parse(workloadFile);
+        c.processes += size;
+        return w;
+    }
+
+    // ==========================================
+    // Workload
+    // ==========================================
+    // Mean inter-arrival time roughly matches mean burst plus context switch,
+    // so the CPU runs near saturation without the ready queue growing without
+    // bound. Bursts 1..20, priorities 1..10, AG quanta 2..8.
+    static List<CPUScheduler.Process> workload(int n, long seed) {
+        Random rnd = new Random(seed);
+        List<CPUScheduler.Process> list = new ArrayList<>(n);
+        int arrival = 0;
+        for (int i = 0; i < n; i++) {
+            arrival += rnd.nextInt(24);
+            CPUScheduler.Process p = new CPUScheduler.Process("P" + (i + 1), arrival,
+                    1 + rnd.nextInt(20), 1 + rnd.nextInt(10), 2 + rnd.nextInt(7));
+            p.id = i;
+            list.add(p);
+        }
+        return list;
+    }
+
+    static void writeJson(List<CPUScheduler.Process> processes, Path file) throws IOException {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("{\n  \"input\": {\n");
+            w.write("    \"contextSwitch\": " + CONTEXT_SWITCH + ",\n");
+            w.write("    \"rrQuantum\": " + RR_QUANTUM + ",\n");
+            w.write("    \"agingInterval\": " + AGING_INTERVAL + ",\n");
+            w.write("    \"processes\": [\n");
+            for (int i = 0; i < processes.size(); i++) {
+                CPUScheduler.Process p = processes.get(i);
+                w.write("      {\"name\": \"" + p.name + "\", \"arrival\": " + p.arrivalTime
+                        + ", \"burst\": " + p.burstTime + ", \"priority\": " + p.priority
+                        + ", \"quantum\": " + p.quantum + "}");
+                w.write(i + 1 < processes.size() ? ",\n" : "\n");
+            }
+            w.write("    ]\n  }\n}\n");
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package scheduler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+// ==========================================
+// Headless Batch Mode
+// ==========================================
+// java -jar cpu-scheduler.jar --input-dir <dir> [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--threads N]
+//                           [--format text|json|csv|trace --output-dir <dir>]
+//
+// Runs every *.json workload in a directory without prompting. Each file is
+// parsed once, then every (file, algorithm) pair is simulated as its own task
+// on a fork-join pool and printed into a private buffer. Buffers are written
+// out in file-name order, then algorithm order, so the output is the same
+// whatever the thread count. "auto" picks AG for AG workloads and SJF, RR
+// and Priority otherwise (with EDF and RM for workloads with deadlines),
+// like the interactive menu.
+//
+// With --format json or csv each run is simulated straight on a ProcessTable
+// and streamed by ResultWriter into <output-dir>/<file>.<algorithm>.<format>
+// instead of being printed, which keeps million-process results cheap.
+// --format trace records the run itself as a binary Trace instead.
+class BatchRunner {
+
+    static final List<String> ALGORITHMS = List.of("sjf", "rr", "priority", "ag", "mlfq", "cfs", "edf", "rm");
+    static final Map<String, String> LABELS = Map.of("sjf", "SJF", "rr", "RR", "priority", "Priority", "ag", "AG", "mlfq", "MLFQ", "cfs", "CFS",
+            "edf", "EDF", "rm", "RM");
+
+    private Path inputDir;
+    private List<String> algorithms = List.of("auto");
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String format = "text";
+    private Path outputDir;
+
+    public static int run(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --input-dir <dir> [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--threads N] [--format text|json|csv|trace --output-dir <dir>]");
+            return 2;
+        }
+        return runner.runAll();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--input-dir":
+                    inputDir = Paths.get(require(args[i], value));
+                    i++;
+                    break;
+                case "--algorithms":
+                    algorithms = Arrays.asList(require(args[i], value).toLowerCase().split(","));
+                    for (String a : algorithms) {
+                        if (!a.equals("auto") && !ALGORITHMS.contains(a)) throw new IllegalArgumentException("unknown algorithm '" + a + "'");
+                    }
+                    i++;
+                    break;
+                case "--threads":
+                    try {
+                        threads = Integer.parseInt(require(args[i], value));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--threads expects a number");
+                    }
+                    if (threads < 1) throw new IllegalArgumentException("--threads must be at least 1");
+                    i++;
+                    break;
+                case "--format":
+                    format = require(args[i], value).toLowerCase();
+                    if (!List.of("text", "json", "csv", "trace").contains(format)) throw new IllegalArgumentException("unknown format '" + value + "'");
+                    i++;
+                    break;
+                case "--output-dir":
+                    outputDir = Paths.get(require(args[i], value));
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+            }
+        }
+        if (inputDir == null) throw new IllegalArgumentException("--input-dir is required");
+        if (!format.equals("text") && outputDir == null) throw new IllegalArgumentException("--format " + format + " needs --output-dir");
+    }
+
+    private static String require(String option, String value) {
+        if (value == null) throw new IllegalArgumentException(option + " expects a value");
+        return value;
+    }
+
+    private int runAll() {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(inputDir)) {
+            files = listing.filter(f -> Files.isRegularFile(f) && f.getFileName().toString().endsWith(".json"))
+                           .sorted()
+                           .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.out.println("Error: cannot read " + inputDir + ": " + e.getMessage());
+            return 1;
+        }
+        if (files.isEmpty()) {
+            System.out.println("Error: No .json files in " + inputDir);
+            return 1;
+        }
+        if (outputDir != null) {
+            try {
+                Files.createDirectories(outputDir);
+            } catch (IOException e) {
+                System.out.println("Error: cannot create " + outputDir + ": " + e.getMessage());
+                return 1;
+            }
+        }
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int failures = 0;
+        int runs = 0;
+        try {
+            List<CompletableFuture<FileResult>> results = new ArrayList<>();
+            for (Path file : files) results.add(submit(file, pool));
+
+            // Print in file order as soon as each file (and everything before it) is done
+            for (int i = 0; i < files.size(); i++) {
+                FileResult r = results.get(i).join();
+                System.out.println("\n##########################################################");
+                System.out.println("  " + files.get(i).getFileName());
+                System.out.println("##########################################################");
+                System.out.print(r.output);
+                if (r.failed) failures++;
+                runs += r.runs;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%nBatch complete: %d files, %d runs, %d failed%n", files.size(), runs, failures);
+        System.out.printf("Wall time: %.3f s (%.2f files/sec, %d threads)%n", seconds, files.size() / seconds, threads);
+        return failures == 0 ? 0 : 1;
+    }
+
+    private static class FileResult {
+        final String output;
+        final int runs;
+        final boolean failed;
+
+        FileResult(String output, int runs, boolean failed) {
+            this.output = output;
+            this.runs = runs;
+            this.failed = failed;
+        }
+    }
+
+    private CompletableFuture<FileResult> submit(Path file, ForkJoinPool pool) {
+        return CompletableFuture
+            .supplyAsync(() -> parse(file), pool)
+            .thenComposeAsync(workload -> {
+                List<String> chosen = resolve(file, workload);
+                List<CompletableFuture<String>> runs = new ArrayList<>();
+                ProcessTable input = format.equals("text") ? null : ProcessTable.of(workload.processes);
+                for (String algorithm : chosen) {
+                    runs.add(CompletableFuture.supplyAsync(() -> input == null
+                            ? simulate(algorithm, workload)
+                            : export(file, algorithm, workload, input.share()), pool));
+                }
+                return CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+                    StringBuilder sb = new StringBuilder();
+                    sb.append("Config: [CS: ").append(workload.contextSwitch)
+                      .append("] [RR: ").append(workload.rrQuantum)
+                      .append("] [Aging: ").append(workload.agingInterval).append("]\n");
+                    for (CompletableFuture<String> run : runs) sb.append(run.join());
+                    return new FileResult(sb.toString(), runs.size(), false);
+                });
+            }, pool)
+            .exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof UncheckedIOException) cause = cause.getCause();
+                return new FileResult("Error: " + cause.getMessage() + "\n", 0, true);
+            });
+    }
+
+    private static CPUScheduler.Workload parse(Path file) {
+        try {
+            CPUScheduler.Workload workload = WorkloadParser.parse(file);
+            if (workload.processes.isEmpty()) throw new IOException(file + ": No processes found.");
+            return workload;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> resolve(Path file, CPUScheduler.Workload workload) {
+        List<String> chosen = new ArrayList<>();
+        for (String a : algorithms) {
+            if (!a.equals("auto")) chosen.add(a);
+            else chosen.addAll(CPUScheduler.autoAlgorithms(file.getFileName().toString(), workload));
+        }
+        return chosen;
+    }
+
+    // Runs one algorithm on its own table and streams the results to a file.
+    private String export(Path file, String algorithm, CPUScheduler.Workload w, ProcessTable t) {
+        String stem = file.getFileName().toString().replaceFirst("\\.json$", "");
+        Path target = outputDir.resolve(stem + "." + algorithm + "." + format);
+        if (format.equals("trace")) {
+            traced(t, target, 1, () -> CPUScheduler.simulate(algorithm, t, w.contextSwitch, w.rrQuantum, w.agingInterval, w.tuning()));
+            return "Wrote " + target + "\n";
+        }
+        CPUScheduler.simulate(algorithm, t, w.contextSwitch, w.rrQuantum, w.agingInterval, w.tuning());
+        try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            if (format.equals("json")) ResultWriter.writeJson(t, LABELS.get(algorithm), algorithm.equals("ag"), out);
+            else ResultWriter.writeCsv(t, LABELS.get(algorithm), algorithm.equals("ag"), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return "Wrote " + target + "\n";
+    }
+
+    // Runs `simulation` with every event on `t` recorded to `target`.
+    static void traced(ProcessTable t, Path target, int cores, Runnable simulation) {
+        try (Trace.Writer trace = new Trace.Writer(target, cores)) {
+            t.trace = trace;
+            simulation.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            t.trace = null;
+        }
+    }
+
+    // Runs one algorithm on a private copy of the processes, capturing its report.
+    static String simulate(String algorithm, CPUScheduler.Workload w) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, false, StandardCharsets.UTF_8);
+        List<CPUScheduler.Process> processes = CPUScheduler.cloneList(w.processes);
+        switch (algorithm) {
+            case "sjf": CPUScheduler.runSJF(processes, w.contextSwitch, out); break;
+            case "rr": CPUScheduler.runRR(processes, w.contextSwitch, w.rrQuantum, out); break;
+            case "priority": CPUScheduler.runPriority(processes, w.contextSwitch, w.agingInterval, out); break;
+            case "ag": CPUScheduler.runAG(processes, out); break;
+            case "mlfq": CPUScheduler.runMLFQ(processes, w.contextSwitch, w.tuning().mlfq, out); break;
+            case "cfs": CPUScheduler.runCFS(processes, w.contextSwitch, w.tuning().cfs, out); break;
+            case "edf": CPUScheduler.runEDF(processes, w.contextSwitch, out); break;
+            case "rm": CPUScheduler.runRM(processes, w.contextSwitch, out); break;
+            default: throw new IllegalArgumentException("unknown algorithm '" + algorithm + "'");
+        }
+        out.flush();
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+}
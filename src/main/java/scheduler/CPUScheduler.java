@@ -0,0 +1,1882 @@
+package scheduler;
+
+import java.util.*;
+import java.io.*;
+
+public class CPUScheduler {
+
+    // ==========================================
+    // 1. Process Class
+    // ==========================================
+    static class Process {
+        String name;
+        int id; // position in the input file, breaks ties between equal arrivals
+        int arrivalTime;
+        int burstTime;
+        int priority;
+        int quantum; 
+        int node; // cluster node the process belongs to, 0 unless the file says
+        // Alternating CPU and I/O bursts, CPU first and last, burstTime being
+        // the CPU total; null for a single CPU burst
+        int[] bursts;
+        // Real-time: the deadline after arrival (0 for none) and, for a job of
+        // a periodic task, the task's period (0 for a one-shot job)
+        int deadline;
+        int period;
+        
+        // Dynamic variables
+        int remainingTime;
+        int agQuantum;
+        int executedInCurrentCycle; 
+        
+        int completionTime;
+        int waitingTime;
+        int turnaroundTime;
+        
+        // Priority Logic Specific
+        int lastUpdate; 
+        
+        List<Integer> quantumHistory = new ArrayList<>(); 
+
+        public Process(String name, int arr, int burst, int prio, int quant) {
+            this.name = name;
+            this.arrivalTime = arr;
+            this.burstTime = burst;
+            this.priority = prio;
+            this.quantum = quant;
+            this.remainingTime = burst;
+            
+            this.agQuantum = quant;
+            this.executedInCurrentCycle = 0;
+            this.lastUpdate = 0; 
+            this.quantumHistory.add(quant);
+        }
+
+        public Process(Process p) {
+            this(p.name, p.arrivalTime, p.burstTime, p.priority, p.quantum);
+            this.id = p.id;
+            this.node = p.node;
+            this.bursts = p.bursts;
+            this.deadline = p.deadline;
+            this.period = p.period;
+        }
+
+        // Time spent blocked on I/O between the CPU bursts
+        int ioTime() {
+            return ProcessTable.ioTime(bursts);
+        }
+    }
+
+    // Parsed workload file: scheduler settings plus the processes, in file order
+    static class Workload {
+        int contextSwitch = 0;
+        int rrQuantum = 2;
+        int agingInterval = 1;
+        boolean hasQuantum = false; // any process carries an AG "quantum"
+        int[] mlfqQuanta;           // "mlfqQuanta", null for the defaults
+        int mlfqBoost = -1;         // "mlfqBoost", -1 for the default
+        int cfsLatency = -1;        // "cfsLatency", -1 for the default
+        int cfsMinGranularity = -1; // "cfsMinGranularity", -1 for the default
+        int horizon = -1;           // "horizon", where periodic tasks stop releasing jobs
+        List<Process> processes = new ArrayList<>(); // a periodic task's jobs in place of the task
+        List<Process> tasks = new ArrayList<>();     // the periodic tasks themselves
+        boolean hasDeadlines = false;
+        // expectedOutput blocks by algorithm label ("SJF", "RR", "Priority");
+        // a file with a single unlabelled block (the AG tests) keys it as ""
+        Map<String, Expected> expected = new LinkedHashMap<>();
+
+        Tuning tuning() {
+            return tuning(rrQuantum);
+        }
+
+        // What the file sets, with the defaults for `rrQuantum` for the rest
+        Tuning tuning(int rrQuantum) {
+            Tuning defaults = Tuning.defaults(rrQuantum);
+            MlfqConfig mlfq = new MlfqConfig(mlfqQuanta == null ? defaults.mlfq.quanta : mlfqQuanta,
+                    mlfqBoost < 0 ? defaults.mlfq.boostInterval : mlfqBoost);
+            CfsConfig cfs = new CfsConfig(cfsLatency < 0 ? defaults.cfs.targetLatency : cfsLatency,
+                    cfsMinGranularity < 0 ? defaults.cfs.minGranularity : cfsMinGranularity);
+            return new Tuning(mlfq, cfs);
+        }
+
+        // Whether the file fixes every MLFQ / CFS setting, so none follows rrQuantum
+        boolean setsMlfq() { return mlfqQuanta != null && mlfqBoost >= 0; }
+        boolean setsCfs() { return cfsLatency >= 0 && cfsMinGranularity >= 0; }
+    }
+
+    // Settings of the algorithms configured by more than a number: MLFQ's
+    // levels and CFS's latency targets
+    static final class Tuning {
+        final MlfqConfig mlfq;
+        final CfsConfig cfs;
+
+        Tuning(MlfqConfig mlfq, CfsConfig cfs) {
+            this.mlfq = mlfq;
+            this.cfs = cfs;
+        }
+
+        static Tuning defaults(int rrQuantum) {
+            return new Tuning(MlfqConfig.defaults(rrQuantum), CfsConfig.defaults(rrQuantum));
+        }
+    }
+
+    // MLFQ settings: one quantum per level, top level first, and how often
+    // every process goes back to the top (0 for never)
+    static final class MlfqConfig {
+        static final int MAX_LEVELS = 64; // one bit each in the scheduler's bitmap
+
+        final int[] quanta;
+        final int boostInterval;
+
+        MlfqConfig(int[] quanta, int boostInterval) {
+            if (quanta.length < 1 || quanta.length > MAX_LEVELS) {
+                throw new IllegalArgumentException("MLFQ needs 1 to " + MAX_LEVELS + " levels, got " + quanta.length);
+            }
+            for (int q : quanta) {
+                if (q < 1) throw new IllegalArgumentException("every MLFQ quantum must be at least 1");
+            }
+            if (boostInterval < 0) throw new IllegalArgumentException("the MLFQ boost interval must be at least 0");
+            this.quanta = quanta.clone();
+            this.boostInterval = boostInterval;
+        }
+
+        // Three levels at one, two and four RR quanta, boosted every ten
+        // bottom-level quanta
+        static MlfqConfig defaults(int rrQuantum) {
+            long q = Math.max(1, rrQuantum);
+            return new MlfqConfig(new int[] {(int) q, clamp(2 * q), clamp(4 * q)}, clamp(40 * q));
+        }
+
+        static int clamp(long value) {
+            return (int) Math.min(Integer.MAX_VALUE, value);
+        }
+
+        @Override
+        public String toString() {
+            return "Levels=" + quanta.length + ", Quanta=" + Arrays.toString(quanta) + ", Boost=" + boostInterval;
+        }
+    }
+
+    // CFS settings: the period every runnable process should get a turn in
+    // while few are runnable, and the shortest slice once many are
+    static final class CfsConfig {
+        final int targetLatency;
+        final int minGranularity;
+
+        CfsConfig(int targetLatency, int minGranularity) {
+            if (targetLatency < 1) throw new IllegalArgumentException("the CFS target latency must be at least 1");
+            if (minGranularity < 1) throw new IllegalArgumentException("the CFS minimum granularity must be at least 1");
+            this.targetLatency = targetLatency;
+            this.minGranularity = minGranularity;
+        }
+
+        // Linux's 8:1 ratio, with the RR quantum as the minimum slice
+        static CfsConfig defaults(int rrQuantum) {
+            long q = Math.max(1, rrQuantum);
+            return new CfsConfig(MlfqConfig.clamp(8 * q), (int) q);
+        }
+
+        @Override
+        public String toString() {
+            return "Latency=" + targetLatency + ", Min Granularity=" + minGranularity;
+        }
+    }
+
+    // One expectedOutput block; anything the file leaves out stays null
+    static class Expected {
+        List<String> executionOrder;
+        List<ExpectedResult> processResults;
+        Double averageWaitingTime;
+        Double averageTurnaroundTime;
+    }
+
+    static class ExpectedResult {
+        String name;
+        Integer waitingTime;
+        Integer turnaroundTime;
+        List<Integer> quantumHistory;
+    }
+
+    // ==========================================
+    // 2. Main Method
+    // ==========================================
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            // Headless modes: parameter sweep over one file, multi-CPU runs,
+            // clusters of nodes, synthetic workloads, golden-file verification,
+            // trace queries, kernel trace imports, deadline analysis, live runs
+            // on real threads, or a batch over a directory
+            List<String> options = Arrays.asList(args);
+            if (options.contains("--trace-query")) System.exit(Trace.run(args));
+            if (options.contains("--import")) System.exit(KernelTraceImporter.run(args));
+            if (options.contains("--sweep")) System.exit(SweepRunner.run(args));
+            if (options.contains("--smp")) System.exit(SmpSimulator.run(args));
+            if (options.contains("--cluster")) System.exit(ClusterSimulator.run(args));
+            if (options.contains("--generate")) System.exit(WorkloadGenerator.run(args));
+            if (options.contains("--verify")) System.exit(GoldenVerifier.run(args));
+            if (options.contains("--deadlines")) System.exit(Schedulability.run(args));
+            if (options.contains("--live")) System.exit(LiveRunner.run(args));
+            System.exit(BatchRunner.run(args));
+        }
+
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("==========================================");
+        System.out.println("      OS Assignment 3 - CPU Scheduler     ");
+        System.out.println("==========================================\n");
+
+        while(true) {
+            System.out.print("\nEnter JSON filename (e.g., test.json) or 'exit': ");
+            String filename = scanner.nextLine().trim();
+
+            if (filename.equalsIgnoreCase("exit")) break;
+
+            try {
+                File f = new File(filename);
+                if (!f.exists()) {
+                    System.out.println("Error: File not found.");
+                    continue;
+                }
+                
+                Workload workload = WorkloadParser.parse(f.toPath());
+                
+                int contextSwitch = workload.contextSwitch;
+                int rrQuantum = workload.rrQuantum; 
+                int agingInterval = workload.agingInterval;
+                
+                List<Process> processes = workload.processes;
+                
+                if(processes.isEmpty()) {
+                    System.out.println("Error: No processes found.");
+                    continue;
+                }
+
+                boolean isAGTest = isAGWorkload(filename, workload);
+
+                if (isAGTest) {
+                    runAG(cloneList(processes));
+                } else {
+                    System.out.println("\n>>> Running Standard Algorithms <<<");
+                    System.out.println("Config: [CS: " + contextSwitch + "] [RR: " + rrQuantum + "] [Aging: " + agingInterval + "]");
+                    
+                    System.out.println("1. SJF (Preemptive)");
+                    System.out.println("2. Round Robin");
+                    System.out.println("3. Priority (Preemptive + Aging)");
+                    System.out.println("4. Run ALL");
+                    System.out.println("5. MLFQ (" + workload.tuning().mlfq + ")");
+                    System.out.println("6. CFS (" + workload.tuning().cfs + ")");
+                    if (workload.hasDeadlines) {
+                        System.out.println("7. EDF");
+                        System.out.println("8. Rate Monotonic");
+                    }
+                    System.out.print("Choice: ");
+                    String choice = scanner.nextLine();
+
+                    switch (choice) {
+                        case "1": runSJF(cloneList(processes), contextSwitch); break;
+                        case "2": runRR(cloneList(processes), contextSwitch, rrQuantum); break;
+                        case "3": runPriority(cloneList(processes), contextSwitch, agingInterval); break;
+                        case "4": 
+                            runSJF(cloneList(processes), contextSwitch);
+                            runRR(cloneList(processes), contextSwitch, rrQuantum);
+                            runPriority(cloneList(processes), contextSwitch, agingInterval);
+                            runMLFQ(cloneList(processes), contextSwitch, workload.tuning().mlfq);
+                            runCFS(cloneList(processes), contextSwitch, workload.tuning().cfs);
+                            if (workload.hasDeadlines) {
+                                runEDF(cloneList(processes), contextSwitch);
+                                runRM(cloneList(processes), contextSwitch);
+                            }
+                            break;
+                        case "5": runMLFQ(cloneList(processes), contextSwitch, workload.tuning().mlfq); break;
+                        case "6": runCFS(cloneList(processes), contextSwitch, workload.tuning().cfs); break;
+                        case "7": if (workload.hasDeadlines) runEDF(cloneList(processes), contextSwitch); break;
+                        case "8": if (workload.hasDeadlines) runRM(cloneList(processes), contextSwitch); break;
+                    }
+                    // Real-time workloads end with the analysis behind the runs
+                    if (!workload.tasks.isEmpty() && Set.of("4", "7", "8").contains(choice)) {
+                        Schedulability.of(workload.tasks).print(System.out);
+                    }
+                }
+
+            } catch (IOException e) {
+                System.out.println("Error: " + e.getMessage());
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.out.println("Error: " + e.getMessage());
+            }
+        }
+        scanner.close();
+    }
+
+    // ========================================================
+    // ALGORITHM 3: Priority (Corrected Logic)
+    // ========================================================
+    public static RunMetrics runPriority(List<Process> processes, int contextSwitch, int agingInterval) {
+        return runPriority(processes, contextSwitch, agingInterval, System.out);
+    }
+
+    public static RunMetrics runPriority(List<Process> processes, int contextSwitch, int agingInterval, PrintStream out) {
+        out.println("\n========================================================");
+        out.println("           Priority Scheduler (Aging=" + agingInterval + ")");
+        out.println("========================================================");
+
+        ProcessTable table = ProcessTable.of(processes);
+        simulatePriority(table, contextSwitch, agingInterval);
+        table.copyResultsTo(processes);
+        printGantt(table, out);
+        RunMetrics metrics = table.metrics();
+        printResults(processes, table.executionOrder(), false, metrics, out);
+        return metrics;
+    }
+
+    public static void simulatePriority(ProcessTable t, int contextSwitch, int agingInterval) {
+        t.reset();
+        new PriorityScheduler(t, contextSwitch, agingInterval).advanceTo(Integer.MAX_VALUE);
+    }
+
+    // Time jumps straight to the next instant where something can change:
+    // an arrival, an aging step, the end of a context switch or a completion.
+    static final class PriorityScheduler extends Scheduler {
+        private static final int DECIDE = 0, SELECT = 1, SWITCH = 2, CHOOSE = 3, RUN = 4;
+
+        private final int contextSwitch;
+        private final AgingReadyQueue readyQueue;
+        private int phase = DECIDE;
+        private int current = -1;
+        private int candidate = -1;
+        private int switchEnd;
+        private long lastExecuted = -1; // admission number, since a streaming table recycles rows
+
+        PriorityScheduler(ProcessTable t, int contextSwitch, int agingInterval) {
+            this(t, t, contextSwitch, agingInterval);
+        }
+
+        PriorityScheduler(ProcessTable t, Scheduler.Lane lane, int contextSwitch, int agingInterval) {
+            super(t, lane);
+            this.contextSwitch = contextSwitch;
+            this.readyQueue = new AgingReadyQueue(t, lane, agingInterval);
+        }
+
+        @Override
+        void advance(int horizon) {
+            while (true) {
+                switch (phase) {
+                    case DECIDE:
+                        if (time > horizon || lane.finished()) return;
+                        // 1. Add Arrivals
+                        readyQueue.admit(time);
+
+                        // 2. Apply Aging
+                        readyQueue.age(time);
+
+                        // 3. Preemption Check
+                        if (current >= 0 && !readyQueue.isEmpty()) {
+                            if (shouldPreempt(t, readyQueue.peek(), current)) {
+                                t.lastUpdate[current] = time;
+                                readyQueue.add(current);
+                                current = -1;
+                            }
+                        }
+
+                        // 4. Selection
+                        if (current >= 0) {
+                            phase = RUN;
+                        } else if (!readyQueue.isEmpty()) {
+                            phase = SELECT;
+                        } else {
+                            // CPU idle: nothing can happen before the next arrival
+                            int next = lane.nextArrivalTime();
+                            if (next > horizon) return;
+                            time = next;
+                        }
+                        break;
+
+                    case SELECT:
+                        candidate = readyQueue.poll();
+                        phase = CHOOSE;
+
+                        // Context Switch Logic
+                        if (lastExecuted >= 0 && t.admitted[candidate] != lastExecuted && contextSwitch > 0) {
+                            switchEnd = time + contextSwitch;
+                            contextSwitch(time, switchEnd);
+                            phase = SWITCH;
+                        }
+                        break;
+
+                    case SWITCH:
+                        while (time < switchEnd) {
+                            int next = Math.min(switchEnd, readyQueue.nextEvent());
+                            if (next > horizon) return;
+                            time = next;
+                            // Arrivals and aging during CS
+                            readyQueue.admit(time);
+                            readyQueue.age(time);
+                        }
+                        phase = CHOOSE;
+                        break;
+
+                    case CHOOSE:
+                        // Re-evaluate
+                        if (!readyQueue.isEmpty() && shouldPreempt(t, readyQueue.peek(), candidate)) {
+                            t.lastUpdate[candidate] = time;
+                            readyQueue.add(candidate);
+                            phase = SELECT;
+                        } else {
+                            current = candidate;
+                            candidate = -1;
+                            phase = RUN;
+                        }
+                        break;
+
+                    default:
+                        // 5. Execution (until completion or the next event, whichever comes
+                        // first). Nothing is decided in between, so a slice cut short by the
+                        // horizon simply carries on from there.
+                        int end = sliceEnd();
+                        if (end > horizon) {
+                            runUntil(horizon);
+                            return;
+                        }
+                        runUntil(end);
+                        phase = DECIDE;
+                }
+            }
+        }
+
+        private int sliceEnd() {
+            return time + Math.min(t.remaining[current], readyQueue.nextEvent() - time);
+        }
+
+        private void runUntil(int end) {
+            if (end <= time) return;
+            run(current, time, end);
+            t.remaining[current] -= end - time;
+            lastExecuted = t.admitted[current];
+            time = end;
+
+            if (t.remaining[current] == 0) {
+                endBurst(current, time);
+                current = -1;
+            }
+        }
+
+        @Override
+        int nextEventTime() {
+            switch (phase) {
+                case SWITCH: return Math.min(switchEnd, readyQueue.nextEvent());
+                case RUN: return sliceEnd();
+                case DECIDE: return lane.nextArrivalTime();
+                default: return time;
+            }
+        }
+
+        @Override
+        int runningRow() { return phase == RUN ? current : -1; }
+
+        @Override
+        int[] readyRows() { return readyQueue.rows(); }
+
+        @Override
+        int readySize() { return readyQueue.size(); }
+
+        @Override
+        int steal() { return readyQueue.steal(); }
+
+        @Override
+        int peakReady() { return readyQueue.peakSize(); }
+    }
+
+    private static boolean shouldPreempt(ProcessTable t, int best, int running) {
+        if (t.priority[best] < t.priority[running]) return true;
+        if (t.priority[best] == t.priority[running]) {
+            if (t.arrival[best] < t.arrival[running]) return true;
+            if (t.arrival[best] == t.arrival[running]) {
+                return t.name[best].compareTo(t.name[running]) < 0;
+            }
+        }
+        return false;
+    }
+
+    // Ready order for Priority: priority, then arrival, then name
+    static final ProcessTable.Heap.Order PRIORITY_ORDER = (t, a, b) -> {
+        if (t.priority[a] != t.priority[b]) return t.priority[a] < t.priority[b];
+        if (t.arrival[a] != t.arrival[b]) return t.arrival[a] < t.arrival[b];
+        int byName = t.name[a].compareTo(t.name[b]);
+        return byName != 0 ? byName < 0 : t.admitted[a] < t.admitted[b];
+    };
+
+    static final ProcessTable.Heap.Order AGING_ORDER = (t, a, b) ->
+        t.lastUpdate[a] != t.lastUpdate[b] ? t.lastUpdate[a] < t.lastUpdate[b] : t.admitted[a] < t.admitted[b];
+
+    // ==========================================
+    // Priority ready queue with lazy aging
+    // ==========================================
+    // A waiting process loses one priority level every agingInterval units
+    // since its lastUpdate, down to 1. Rather than re-scanning the whole queue
+    // each tick, processes that can still age are also kept ordered by
+    // lastUpdate, so only the ones whose priority actually drops are touched.
+    static class AgingReadyQueue {
+        private final ProcessTable t;
+        private final Scheduler.Lane lane;
+        private final ProcessTable.Heap ready;
+        private final ProcessTable.Heap aging;
+        private final int agingInterval;
+
+        AgingReadyQueue(ProcessTable t, Scheduler.Lane lane, int agingInterval) {
+            this.t = t;
+            this.lane = lane;
+            this.ready = lane.heapA(PRIORITY_ORDER);
+            this.aging = lane.heapB(AGING_ORDER);
+            this.agingInterval = agingInterval;
+        }
+
+        // Admits every process that has arrived by `time`.
+        void admit(int time) {
+            while (lane.arrivedBy(time)) {
+                int row = lane.admit();
+                t.lastUpdate[row] = time;
+                add(row);
+            }
+        }
+
+        // Ages every process whose next step falls at or before `time`.
+        void age(int time) {
+            if (agingInterval <= 0) return;
+            while (!aging.isEmpty() && t.lastUpdate[aging.peek()] + agingInterval <= time) {
+                int row = aging.poll();
+                t.priority[row]--;
+                t.lastUpdate[row] = time;
+                ready.update(row);
+                if (t.priority[row] > 1) aging.add(row);
+            }
+        }
+
+        // Earliest instant after the current one at which an arrival or an aging step happens.
+        int nextEvent() {
+            int next = lane.nextArrivalTime();
+            if (!aging.isEmpty()) next = Math.min(next, t.lastUpdate[aging.peek()] + agingInterval);
+            return next;
+        }
+
+        void add(int row) {
+            ready.add(row);
+            if (agingInterval > 0 && t.priority[row] > 1) aging.add(row);
+        }
+
+        int poll() {
+            int row = ready.poll();
+            if (aging.contains(row)) aging.remove(row);
+            return row;
+        }
+
+        // Removes a leaf of the ready heap, among the last to be picked
+        int steal() {
+            if (ready.isEmpty()) return -1;
+            int row = ready.at(ready.size() - 1);
+            ready.remove(row);
+            if (aging.contains(row)) aging.remove(row);
+            return row;
+        }
+
+        int peek() { return ready.peek(); }
+        boolean isEmpty() { return ready.isEmpty(); }
+        int size() { return ready.size(); }
+        int peakSize() { return ready.peakSize(); }
+        int[] rows() { return Scheduler.sorted(t, ready, PRIORITY_ORDER); }
+    }
+
+    // ========================================================
+    // ALGORITHM 4: AG Scheduler (Official Logic)
+    // ========================================================
+    public static RunMetrics runAG(List<Process> processes) {
+        return runAG(processes, System.out);
+    }
+
+    public static RunMetrics runAG(List<Process> processes, PrintStream out) {
+        out.println("\n========================================================");
+        out.println("               AG Scheduler Simulation");
+        out.println("========================================================");
+
+        ProcessTable table = ProcessTable.of(processes);
+        simulateAG(table);
+        table.copyResultsTo(processes);
+        printGantt(table, out);
+        RunMetrics metrics = table.metrics();
+        printResults(processes, table.executionOrder(), true, metrics, out);
+        return metrics;
+    }
+
+    public static void simulateAG(ProcessTable t) {
+        t.reset();
+        new AGScheduler(t).advanceTo(Integer.MAX_VALUE);
+    }
+
+    // One unit at a time: what happens after each unit depends on who has
+    // arrived by its end, so a unit is only run once that much is known.
+    static final class AGScheduler extends Scheduler {
+        private final AGReadyQueue readyQueue;
+        private int active = -1;
+
+        AGScheduler(ProcessTable t) {
+            this(t, t);
+        }
+
+        AGScheduler(ProcessTable t, Scheduler.Lane lane) {
+            super(t, lane);
+            this.readyQueue = new AGReadyQueue(t, lane);
+        }
+
+        @Override
+        void advance(int horizon) {
+            while (time <= horizon && !lane.finished()) {
+
+                readyQueue.admit(time);
+
+                if (active < 0) {
+                    if (!readyQueue.isEmpty()) {
+                        active = readyQueue.poll();
+                        t.executed[active] = 0;
+                    } else {
+                        int next = lane.nextArrivalTime();
+                        if (next > horizon) return;
+                        time = next;
+                        continue;
+                    }
+                }
+                if (time >= horizon) return;
+
+                // FCFS for the first 25% of the quantum, non-preemptive priority
+                // for the next 25%, preemptive SJF for the rest
+                int q = t.agQuantum[active];
+                int q25 = (int) Math.ceil(q * 0.25);
+                int q50 = 2 * q25;
+
+                run(active, time, time + 1);
+                t.remaining[active]--;
+                t.executed[active]++;
+                time++;
+
+                // Processes arriving at this instant queue up ahead of the active one
+                readyQueue.admit(time);
+
+                // A process that blocks on I/O keeps its quantum for when it is back
+                if (t.remaining[active] == 0) {
+                    if (endBurst(active, time)) {
+                        t.agQuantum[active] = 0;
+                        t.recordQuantum(active, 0);
+                    }
+                    active = -1;
+                    continue;
+                }
+
+                if (t.executed[active] == q) {
+                    t.agQuantum[active] += 2;
+                    t.recordQuantum(active, t.agQuantum[active]);
+                    readyQueue.add(active);
+                    active = -1;
+                    continue;
+                }
+
+                if (readyQueue.isEmpty()) continue;
+
+                if (t.executed[active] == q25) {
+                    int bestPrio = readyQueue.highestPriority();
+                    if (t.priority[bestPrio] < t.priority[active]) {
+                        int remainingQ = q - t.executed[active];
+                        t.agQuantum[active] += (int) Math.ceil(remainingQ / 2.0);
+                        t.recordQuantum(active, t.agQuantum[active]);
+                        t.agPriorityPreemptions++;
+                        readyQueue.add(active);
+                        active = bestPrio;
+                        readyQueue.remove(active);
+                        t.executed[active] = 0;
+                        continue;
+                    }
+                }
+
+                if (t.executed[active] >= q50) {
+                    int bestSJF = readyQueue.shortest();
+                    if (t.remaining[bestSJF] < t.remaining[active]) {
+                        int remainingQ = q - t.executed[active];
+                        t.agQuantum[active] += remainingQ;
+                        t.recordQuantum(active, t.agQuantum[active]);
+                        t.agSjfPreemptions++;
+                        readyQueue.add(active);
+                        active = bestSJF;
+                        readyQueue.remove(active);
+                        t.executed[active] = 0;
+                        continue;
+                    }
+                }
+            }
+        }
+
+        @Override
+        int nextEventTime() { return active >= 0 ? time + 1 : lane.nextArrivalTime(); }
+
+        @Override
+        int runningRow() { return active; }
+
+        @Override
+        int[] readyRows() { return readyQueue.rows(); }
+
+        @Override
+        int readySize() { return readyQueue.size(); }
+
+        @Override
+        int steal() { return readyQueue.steal(); }
+
+        @Override
+        int peakReady() { return readyQueue.peakSize(); }
+    }
+
+    static final ProcessTable.Heap.Order AG_PRIORITY_ORDER = (t, a, b) ->
+        t.priority[a] != t.priority[b] ? t.priority[a] < t.priority[b] : t.readySeq[a] < t.readySeq[b];
+
+    static final ProcessTable.Heap.Order AG_REMAINING_ORDER = (t, a, b) ->
+        t.remaining[a] != t.remaining[b] ? t.remaining[a] < t.remaining[b] : t.readySeq[a] < t.readySeq[b];
+
+    // ==========================================
+    // AG ready queue
+    // ==========================================
+    // FIFO queue that is also indexed by priority and by remaining time, so the
+    // AG checkpoints and the removal of the chosen process are O(log n).
+    // Ties on either index go to whoever has been queued longest, as in a
+    // front-to-back scan. Neither key changes while a process is queued.
+    static class AGReadyQueue {
+        private final ProcessTable t;
+        private final Scheduler.Lane lane;
+        private final ProcessTable.Fifo fifo;
+        private final ProcessTable.Heap byPriority;
+        private final ProcessTable.Heap byRemaining;
+        private long nextSeq = 0;
+
+        AGReadyQueue(ProcessTable t, Scheduler.Lane lane) {
+            this.t = t;
+            this.lane = lane;
+            this.fifo = lane.fifo();
+            this.byPriority = lane.heapA(AG_PRIORITY_ORDER);
+            this.byRemaining = lane.heapB(AG_REMAINING_ORDER);
+        }
+
+        void admit(int time) {
+            while (lane.arrivedBy(time)) add(lane.admit());
+        }
+
+        void add(int row) {
+            t.readySeq[row] = nextSeq++;
+            fifo.add(row);
+            byPriority.add(row);
+            byRemaining.add(row);
+        }
+
+        int poll() {
+            int row = fifo.peek();
+            remove(row);
+            return row;
+        }
+
+        void remove(int row) {
+            fifo.remove(row);
+            byPriority.remove(row);
+            byRemaining.remove(row);
+        }
+
+        // Removes the most recently queued process
+        int steal() {
+            int row = fifo.last();
+            if (row >= 0) remove(row);
+            return row;
+        }
+
+        int highestPriority() { return byPriority.peek(); }
+        int shortest() { return byRemaining.peek(); }
+        boolean isEmpty() { return fifo.isEmpty(); }
+        int size() { return fifo.size(); }
+        int peakSize() { return fifo.peakSize(); }
+        int[] rows() { return Scheduler.inOrder(fifo); }
+    }
+
+    // ==========================================
+    // Helper Methods & Other Algos
+    // ==========================================
+
+    // Shortest remaining time first; equal jobs keep arrival (then input) order
+    static final ProcessTable.Heap.Order SJF_ORDER = (t, a, b) ->
+        t.remaining[a] != t.remaining[b] ? t.remaining[a] < t.remaining[b] : t.admitted[a] < t.admitted[b];
+
+    public static RunMetrics runSJF(List<Process> processes, int contextSwitch) {
+        return runSJF(processes, contextSwitch, System.out);
+    }
+
+    public static RunMetrics runSJF(List<Process> processes, int contextSwitch, PrintStream out) {
+        out.println("\n========================================================");
+        out.println("               SJF Scheduler (Preemptive)");
+        out.println("========================================================");
+        ProcessTable table = ProcessTable.of(processes);
+        simulateSJF(table, contextSwitch);
+        table.copyResultsTo(processes);
+        printGantt(table, out);
+        RunMetrics metrics = table.metrics();
+        printResults(processes, table.executionOrder(), false, metrics, out);
+        return metrics;
+    }
+
+    public static void simulateSJF(ProcessTable t, int contextSwitch) {
+        t.reset();
+        new SJFScheduler(t, contextSwitch).advanceTo(Integer.MAX_VALUE);
+    }
+
+    // Only an arrival can make another job shorter than the running one,
+    // so time jumps from one arrival/completion to the next. The running
+    // job is kept out of the heap since its key shrinks while it runs.
+    static final class SJFScheduler extends Scheduler {
+        private static final int DECIDE = 0, SWITCH = 1, RUN = 2;
+
+        private final int contextSwitch;
+        private final ProcessTable.Heap ready;
+        private int phase = DECIDE;
+        private int active = -1;
+        private int switchEnd;
+        private boolean arrivedDuringSwitch;
+
+        SJFScheduler(ProcessTable t, int contextSwitch) {
+            this(t, t, contextSwitch);
+        }
+
+        SJFScheduler(ProcessTable t, Scheduler.Lane lane, int contextSwitch) {
+            super(t, lane);
+            this.contextSwitch = contextSwitch;
+            this.ready = lane.heapA(SJF_ORDER);
+        }
+
+        @Override
+        void advance(int horizon) {
+            while(true) {
+                if(phase == SWITCH) {
+                    if(switchEnd > horizon) return;
+                    time = switchEnd;
+                    arrivedDuringSwitch = admitArrivals(lane, ready, time) > 0;
+                    phase = RUN;
+                }
+
+                if(phase == RUN) {
+                    // Nothing is decided part way through a slice, so one cut
+                    // short by the horizon simply carries on from there
+                    int end = sliceEnd();
+                    if(end > horizon) {
+                        runUntil(horizon);
+                        return;
+                    }
+                    runUntil(end);
+                    arrivedDuringSwitch = false;
+                    phase = DECIDE;
+                }
+
+                if(time > horizon || lane.finished()) return;
+                admitArrivals(lane, ready, time);
+
+                int shortest = active;
+                if(!ready.isEmpty() && (active < 0 || SJF_ORDER.before(t, ready.peek(), active))) {
+                    shortest = ready.peek();
+                }
+
+                if(shortest != active) {
+                    if(active >= 0) ready.add(active);
+                    ready.poll();
+                    boolean charge = active >= 0 || time > 0;
+                    active = shortest;
+                    if(charge) {
+                        switchEnd = time + contextSwitch;
+                        contextSwitch(time, switchEnd);
+                        phase = SWITCH;
+                        continue;
+                    }
+                }
+
+                if(active >= 0) {
+                    phase = RUN;
+                } else {
+                    int next = lane.nextArrivalTime();
+                    if(next > horizon) return;
+                    time = next;
+                }
+            }
+        }
+
+        // A job that arrived during the switch gets re-checked after one unit
+        private int sliceEnd() {
+            int slice = t.remaining[active];
+            if(arrivedDuringSwitch) {
+                slice = Math.min(slice, 1);
+            } else if(lane.hasArrivals()) {
+                slice = Math.min(slice, lane.nextArrivalTime() - time);
+            }
+            return time + slice;
+        }
+
+        private void runUntil(int end) {
+            if(end <= time) return;
+            run(active, time, end);
+            t.remaining[active] -= end - time;
+            time = end;
+
+            if(t.remaining[active] == 0) {
+                endBurst(active, time);
+                active = -1;
+            }
+        }
+
+        @Override
+        int nextEventTime() {
+            switch(phase) {
+                case SWITCH: return switchEnd;
+                case RUN: return sliceEnd();
+                default: return lane.nextArrivalTime();
+            }
+        }
+
+        @Override
+        int runningRow() { return phase == RUN ? active : -1; }
+
+        @Override
+        int[] readyRows() { return sorted(t, ready, SJF_ORDER); }
+
+        @Override
+        int readySize() { return ready.size(); }
+
+        // A leaf of the heap, among the longest jobs waiting
+        @Override
+        int steal() {
+            if(ready.isEmpty()) return -1;
+            int row = ready.at(ready.size() - 1);
+            ready.remove(row);
+            return row;
+        }
+
+        @Override
+        int peakReady() { return ready.peakSize(); }
+    }
+
+    public static RunMetrics runRR(List<Process> processes, int contextSwitch, int quantum) {
+        return runRR(processes, contextSwitch, quantum, System.out);
+    }
+
+    public static RunMetrics runRR(List<Process> processes, int contextSwitch, int quantum, PrintStream out) {
+        out.println("\n========================================================");
+        out.println("               Round Robin (Quantum=" + quantum + ")");
+        out.println("========================================================");
+        ProcessTable table = ProcessTable.of(processes);
+        simulateRR(table, contextSwitch, quantum);
+        table.copyResultsTo(processes);
+        printGantt(table, out);
+        RunMetrics metrics = table.metrics();
+        printResults(processes, table.executionOrder(), false, metrics, out);
+        return metrics;
+    }
+
+    public static void simulateRR(ProcessTable t, int contextSwitch, int quantum) {
+        t.reset();
+        new RRScheduler(t, contextSwitch, quantum).advanceTo(Integer.MAX_VALUE);
+    }
+
+    // A slice is booked when it is dispatched; what follows it (requeue,
+    // switch, next dispatch) waits until the arrivals up to its end are known.
+    static final class RRScheduler extends Scheduler {
+        private static final int DISPATCH = 0, RUN = 1, SWITCH_IF_MORE = 2, SWITCH = 3;
+
+        private final int contextSwitch;
+        private final int quantum;
+        private final ProcessTable.Fifo queue;
+        private int phase = DISPATCH;
+        private int current = -1;
+        private int sliceEnd, switchEnd;
+
+        RRScheduler(ProcessTable t, int contextSwitch, int quantum) {
+            this(t, t, contextSwitch, quantum);
+        }
+
+        RRScheduler(ProcessTable t, Scheduler.Lane lane, int contextSwitch, int quantum) {
+            super(t, lane);
+            this.contextSwitch = contextSwitch;
+            this.quantum = quantum;
+            this.queue = lane.fifo();
+        }
+
+        @Override
+        void advance(int horizon) {
+            while(true) {
+                switch(phase) {
+                    case DISPATCH:
+                        if(time > horizon) return;
+                        admitArrivals(lane, queue, time);
+                        if(queue.isEmpty()) {
+                            int next = lane.nextArrivalTime();
+                            if(next > horizon) return;
+                            time = next;
+                            admitArrivals(lane, queue, time);
+                        }
+
+                        current = queue.poll();
+
+                        int executeTime = Math.min(t.remaining[current], quantum);
+                        run(current, time, time + executeTime);
+                        t.remaining[current] -= executeTime;
+                        sliceEnd = time + executeTime;
+                        phase = RUN;
+                        break;
+
+                    case RUN:
+                        if(sliceEnd > horizon) return;
+                        time = sliceEnd;
+                        admitArrivals(lane, queue, time);
+
+                        if(t.remaining[current] > 0) {
+                            queue.add(current);
+                        } else {
+                            endBurst(current, time);
+                        }
+                        current = -1;
+                        phase = SWITCH_IF_MORE;
+                        break;
+
+                    case SWITCH_IF_MORE:
+                        // The switch is only charged if more work follows, which
+                        // online may not be known until a later submit()
+                        if(lane.finished()) return;
+                        switchEnd = time + contextSwitch;
+                        contextSwitch(time, switchEnd);
+                        phase = SWITCH;
+                        break;
+
+                    default:
+                        if(switchEnd > horizon) return;
+                        time = switchEnd;
+                        admitArrivals(lane, queue, time);
+                        phase = DISPATCH;
+                }
+            }
+        }
+
+        @Override
+        int nextEventTime() {
+            switch(phase) {
+                case RUN: return sliceEnd;
+                case SWITCH: return switchEnd;
+                case SWITCH_IF_MORE: return lane.finished() ? Integer.MAX_VALUE : time + contextSwitch;
+                default: return queue.isEmpty() ? lane.nextArrivalTime() : time;
+            }
+        }
+
+        @Override
+        int runningRow() { return phase == RUN ? current : -1; }
+
+        @Override
+        int[] readyRows() { return inOrder(queue); }
+
+        @Override
+        int readySize() { return queue.size(); }
+
+        // The back of the queue, the process that would wait longest
+        @Override
+        int steal() {
+            int row = queue.last();
+            if(row >= 0) queue.remove(row);
+            return row;
+        }
+
+        @Override
+        int peakReady() { return queue.peakSize(); }
+    }
+
+    // ========================================================
+    // ALGORITHM 5: Multilevel Feedback Queue
+    // ========================================================
+    public static RunMetrics runMLFQ(List<Process> processes, int contextSwitch, MlfqConfig mlfq) {
+        return runMLFQ(processes, contextSwitch, mlfq, System.out);
+    }
+
+    public static RunMetrics runMLFQ(List<Process> processes, int contextSwitch, MlfqConfig mlfq, PrintStream out) {
+        out.println("\n========================================================");
+        out.println("               MLFQ (" + mlfq + ")");
+        out.println("========================================================");
+        ProcessTable table = ProcessTable.of(processes);
+        simulateMLFQ(table, contextSwitch, mlfq);
+        table.copyResultsTo(processes);
+        printGantt(table, out);
+        RunMetrics metrics = table.metrics();
+        printResults(processes, table.executionOrder(), false, metrics, out);
+        return metrics;
+    }
+
+    public static void simulateMLFQ(ProcessTable t, int contextSwitch, MlfqConfig mlfq) {
+        t.reset();
+        new MLFQScheduler(t, contextSwitch, mlfq).advanceTo(Integer.MAX_VALUE);
+    }
+
+    // Round robin within each level, top level first. Arrivals join the top
+    // level; a process that uses up its level's quantum (in one slice or
+    // several) moves down one, and one cut short by an arrival keeps what it
+    // has used and goes to the back of its level. Only a process below the
+    // top can be cut short that way, since arrivals land at the top. A boost
+    // falls due every boostInterval units and takes effect at the next
+    // decision: every process, the one whose slice just ended included, goes
+    // back to the top level with its quantum unused. A process that blocks
+    // on I/O keeps its level and what it has used of the quantum, so short
+    // interactive bursts stay near the top. Like RR, a context switch
+    // follows every slice while work remains.
+    //
+    // Bit i of `nonEmpty` is set while level i has a process waiting, so the
+    // next level to serve is its lowest set bit whatever the number of levels.
+    static final class MLFQScheduler extends Scheduler {
+        private static final int DISPATCH = 0, RUN = 1, SWITCH_IF_MORE = 2, SWITCH = 3;
+
+        private final int contextSwitch;
+        private final int[] quanta;
+        private final int boostInterval;
+        private final ProcessTable.Fifo[] levels;
+        private long nonEmpty;
+        private int waiting, peak;
+        private int nextBoost;
+        private int phase = DISPATCH;
+        private int current = -1;
+        private int quantumEnd, switchEnd;
+
+        MLFQScheduler(ProcessTable t, int contextSwitch, MlfqConfig mlfq) {
+            this(t, t, contextSwitch, mlfq);
+        }
+
+        MLFQScheduler(ProcessTable t, Scheduler.Lane lane, int contextSwitch, MlfqConfig mlfq) {
+            super(t, lane);
+            this.contextSwitch = contextSwitch;
+            this.quanta = mlfq.quanta;
+            this.boostInterval = mlfq.boostInterval;
+            this.levels = lane.fifos(quanta.length);
+            this.nextBoost = boostInterval > 0 ? boostInterval : Integer.MAX_VALUE;
+        }
+
+        @Override
+        void advance(int horizon) {
+            while(true) {
+                switch(phase) {
+                    case DISPATCH:
+                        if(time > horizon) return;
+                        admitArrivals();
+                        if(waiting == 0) {
+                            int next = lane.nextArrivalTime();
+                            if(next > horizon) return;
+                            time = next;
+                            admitArrivals();
+                        }
+                        if(time >= nextBoost) boost();
+
+                        current = poll();
+                        int level = t.level[current];
+                        quantumEnd = time + Math.min(t.remaining[current], quanta[level] - t.executed[current]);
+                        phase = RUN;
+                        break;
+
+                    case RUN:
+                        // Nothing is decided part way through a slice, so one cut
+                        // short by the horizon simply carries on from there
+                        int end = sliceEnd();
+                        if(end > horizon) {
+                            runUntil(horizon);
+                            return;
+                        }
+                        runUntil(end);
+                        admitArrivals();
+
+                        boolean burstDone = t.remaining[current] == 0;
+                        // Cut short by arrivals that do not outrank it (I/O
+                        // wake-ups at its level or below): carry on
+                        if(!burstDone && time < quantumEnd && time < nextBoost
+                                && (nonEmpty & ((1L << t.level[current]) - 1)) == 0) {
+                            break;
+                        }
+                        if(!burstDone || !endBurst(current, time)) {
+                            if(time >= nextBoost) {
+                                boost();
+                                t.level[current] = 0;
+                                t.executed[current] = 0;
+                            } else if(t.executed[current] == quanta[t.level[current]]) {
+                                t.level[current] = Math.min(t.level[current] + 1, quanta.length - 1);
+                                t.executed[current] = 0;
+                            }
+                            // One that blocked on I/O comes back through the lane, at its level
+                            if(!burstDone) add(current);
+                        }
+                        current = -1;
+                        phase = SWITCH_IF_MORE;
+                        break;
+
+                    case SWITCH_IF_MORE:
+                        if(lane.finished()) return;
+                        switchEnd = time + contextSwitch;
+                        contextSwitch(time, switchEnd);
+                        phase = SWITCH;
+                        break;
+
+                    default:
+                        if(switchEnd > horizon) return;
+                        time = switchEnd;
+                        admitArrivals();
+                        phase = DISPATCH;
+                }
+            }
+        }
+
+        // The end of the quantum, or the next arrival for a process below the
+        // top, in case it outranks it
+        private int sliceEnd() {
+            if(t.level[current] == 0 || !lane.hasArrivals()) return quantumEnd;
+            return Math.min(quantumEnd, Math.max(time, lane.nextArrivalTime()));
+        }
+
+        private void runUntil(int end) {
+            if(end <= time) return;
+            run(current, time, end);
+            t.remaining[current] -= end - time;
+            t.executed[current] += end - time;
+            time = end;
+        }
+
+        private void admitArrivals() {
+            while(lane.arrivedBy(time)) add(lane.admit());
+        }
+
+        private void add(int row) {
+            int level = t.level[row];
+            levels[level].add(row);
+            nonEmpty |= 1L << level;
+            if(++waiting > peak) peak = waiting;
+        }
+
+        private int poll() {
+            int level = Long.numberOfTrailingZeros(nonEmpty);
+            int row = levels[level].poll();
+            if(levels[level].isEmpty()) nonEmpty &= ~(1L << level);
+            waiting--;
+            return row;
+        }
+
+        // Everyone waiting goes to the back of the top level, highest level first
+        private void boost() {
+            for(int row = levels[0].peek(); row >= 0; row = levels[0].next(row)) t.executed[row] = 0;
+            for(int level = 1; level < levels.length; level++) {
+                while(!levels[level].isEmpty()) {
+                    int row = levels[level].poll();
+                    t.level[row] = 0;
+                    t.executed[row] = 0;
+                    levels[0].add(row);
+                }
+            }
+            if(waiting > 0) nonEmpty = 1L;
+            nextBoost = (int) Math.min(Integer.MAX_VALUE, ((long) time / boostInterval + 1) * boostInterval);
+        }
+
+        @Override
+        int nextEventTime() {
+            switch(phase) {
+                case RUN: return sliceEnd();
+                case SWITCH: return switchEnd;
+                case SWITCH_IF_MORE: return lane.finished() ? Integer.MAX_VALUE : time + contextSwitch;
+                default: return waiting == 0 ? lane.nextArrivalTime() : time;
+            }
+        }
+
+        @Override
+        int runningRow() { return phase == RUN ? current : -1; }
+
+        @Override
+        int[] readyRows() {
+            int[] rows = new int[waiting];
+            int i = 0;
+            for(ProcessTable.Fifo level : levels) {
+                for(int row = level.peek(); row >= 0; row = level.next(row)) rows[i++] = row;
+            }
+            return rows;
+        }
+
+        @Override
+        int readySize() { return waiting; }
+
+        // The back of the lowest level waiting, the process that would wait longest
+        @Override
+        int steal() {
+            if(waiting == 0) return -1;
+            int level = 63 - Long.numberOfLeadingZeros(nonEmpty);
+            int row = levels[level].last();
+            levels[level].remove(row);
+            if(levels[level].isEmpty()) nonEmpty &= ~(1L << level);
+            waiting--;
+            return row;
+        }
+
+        @Override
+        int peakReady() { return peak; }
+    }
+
+    // ========================================================
+    // ALGORITHM 6: Completely Fair Scheduler
+    // ========================================================
+    public static RunMetrics runCFS(List<Process> processes, int contextSwitch, CfsConfig cfs) {
+        return runCFS(processes, contextSwitch, cfs, System.out);
+    }
+
+    public static RunMetrics runCFS(List<Process> processes, int contextSwitch, CfsConfig cfs, PrintStream out) {
+        out.println("\n========================================================");
+        out.println("               CFS (" + cfs + ")");
+        out.println("========================================================");
+        ProcessTable table = ProcessTable.of(processes);
+        simulateCFS(table, contextSwitch, cfs);
+        table.copyResultsTo(processes);
+        printGantt(table, out);
+        RunMetrics metrics = table.metrics();
+        printResults(processes, table.executionOrder(), false, metrics, out);
+        return metrics;
+    }
+
+    public static void simulateCFS(ProcessTable t, int contextSwitch, CfsConfig cfs) {
+        t.reset();
+        new CFSScheduler(t, contextSwitch, cfs).advanceTo(Integer.MAX_VALUE);
+    }
+
+    // Linux's load weight for nice -20 to 19, each level worth about 10% of
+    // CPU time against its neighbour
+    private static final int[] NICE_TO_WEIGHT = {
+        88761, 71755, 56483, 46273, 36291, 29154, 23254, 18705, 14949, 11916,
+        9548, 7620, 6100, 4904, 3906, 3121, 2501, 1991, 1586, 1277,
+        1024, 820, 655, 526, 423, 335, 272, 215, 172, 137,
+        110, 87, 70, 56, 45, 36, 29, 23, 18, 15
+    };
+
+    // Priority 21 is nice 0 and each step either way is one nice level
+    // (smaller runs first, as for Priority), clamped to the table
+    static int cfsWeight(int priority) {
+        return NICE_TO_WEIGHT[Math.max(0, Math.min(39, priority - 1))];
+    }
+
+    // Ready order for CFS: least virtual runtime, then admission order
+    static final ProcessTable.Heap.Order CFS_ORDER = (t, a, b) ->
+        t.vruntime[a] != t.vruntime[b] ? t.vruntime[a] < t.vruntime[b] : t.admitted[a] < t.admitted[b];
+
+    // A process's virtual runtime grows by 1024 / weight per unit it runs,
+    // so a heavier one ages more slowly, and the one with the least always
+    // runs next. The ready processes sit in a heap on vruntime (the red-black
+    // tree of Linux): O(log n) to pick, insert or remove. The chosen process
+    // keeps the CPU for its share of the period, which is targetLatency or,
+    // once that would leave slices under minGranularity, runnable processes
+    // times minGranularity; then whoever has the least vruntime runs, the
+    // same process included. Arrivals start at the least vruntime in play
+    // (min_vruntime, which never goes back) rather than 0, so they neither
+    // starve the others nor get starved after a long run, and wait for the
+    // current slice to end; a process back from I/O is placed the same way.
+    // As in SJF, a context switch is charged whenever another process takes
+    // the CPU.
+    static final class CFSScheduler extends Scheduler {
+        private static final int DECIDE = 0, SWITCH = 1, RUN = 2;
+        private static final long NICE_0_UNIT = 1024L << 16; // one unit at nice 0, in fixed point
+
+        private final int contextSwitch;
+        private final int targetLatency, minGranularity;
+        private final ProcessTable.Heap ready;
+        private long totalWeight; // of every process held, running or ready
+        private long minVruntime;
+        private int phase = DECIDE;
+        private int active = -1;
+        private int switchEnd, sliceStart, sliceEnd;
+        private long sliceVruntime; // active's vruntime at sliceStart
+
+        CFSScheduler(ProcessTable t, int contextSwitch, CfsConfig cfs) {
+            this(t, t, contextSwitch, cfs);
+        }
+
+        CFSScheduler(ProcessTable t, Scheduler.Lane lane, int contextSwitch, CfsConfig cfs) {
+            super(t, lane);
+            this.contextSwitch = contextSwitch;
+            this.targetLatency = cfs.targetLatency;
+            this.minGranularity = cfs.minGranularity;
+            this.ready = lane.heapA(CFS_ORDER);
+        }
+
+        @Override
+        void advance(int horizon) {
+            while(true) {
+                if(phase == SWITCH) {
+                    if(switchEnd > horizon) return;
+                    time = switchEnd;
+                    admitArrivals();
+                    startSlice();
+                    phase = RUN;
+                }
+
+                if(phase == RUN) {
+                    if(sliceEnd > horizon) {
+                        runUntil(horizon);
+                        return;
+                    }
+                    runUntil(sliceEnd);
+                    phase = DECIDE;
+                }
+
+                if(time > horizon || lane.finished()) return;
+                admitArrivals();
+
+                int next = active;
+                if(!ready.isEmpty() && (active < 0 || CFS_ORDER.before(t, ready.peek(), active))) {
+                    next = ready.poll();
+                    if(active >= 0) ready.add(active);
+                    boolean charge = active >= 0 || time > 0;
+                    active = next;
+                    if(charge) {
+                        switchEnd = time + contextSwitch;
+                        contextSwitch(time, switchEnd);
+                        phase = SWITCH;
+                        continue;
+                    }
+                }
+
+                if(active >= 0) {
+                    startSlice();
+                    phase = RUN;
+                } else {
+                    int arrival = lane.nextArrivalTime();
+                    if(arrival > horizon) return;
+                    time = arrival;
+                }
+            }
+        }
+
+        private void startSlice() {
+            long period = Math.max(targetLatency, (long) (ready.size() + 1) * minGranularity);
+            long slice = Math.max(1, period * cfsWeight(t.basePriority[active]) / totalWeight);
+            sliceStart = time;
+            sliceEnd = (int) Math.min(Integer.MAX_VALUE, time + Math.min(slice, t.remaining[active]));
+            sliceVruntime = t.vruntime[active];
+        }
+
+        // vruntime is worked out from the start of the slice each time, so
+        // it comes out the same however often a horizon splits the slice
+        private void runUntil(int end) {
+            if(end <= time) return;
+            run(active, time, end);
+            t.remaining[active] -= end - time;
+            time = end;
+            int weight = cfsWeight(t.basePriority[active]);
+            t.vruntime[active] = sliceVruntime + (time - sliceStart) * NICE_0_UNIT / weight;
+            long least = ready.isEmpty() ? t.vruntime[active] : Math.min(t.vruntime[active], t.vruntime[ready.peek()]);
+            minVruntime = Math.max(minVruntime, least);
+
+            if(t.remaining[active] == 0) {
+                endBurst(active, time);
+                totalWeight -= weight;
+                active = -1;
+            }
+        }
+
+        private void admitArrivals() {
+            while(lane.arrivedBy(time)) {
+                int row = lane.admit();
+                t.vruntime[row] = Math.max(t.vruntime[row], minVruntime);
+                totalWeight += cfsWeight(t.basePriority[row]);
+                ready.add(row);
+            }
+        }
+
+        @Override
+        int nextEventTime() {
+            switch(phase) {
+                case SWITCH: return switchEnd;
+                case RUN: return sliceEnd;
+                default: return lane.nextArrivalTime();
+            }
+        }
+
+        @Override
+        int runningRow() { return phase == RUN ? active : -1; }
+
+        @Override
+        int[] readyRows() { return sorted(t, ready, CFS_ORDER); }
+
+        @Override
+        int readySize() { return ready.size(); }
+
+        // A leaf of the heap, among the processes furthest ahead
+        @Override
+        int steal() {
+            if(ready.isEmpty()) return -1;
+            int row = ready.at(ready.size() - 1);
+            ready.remove(row);
+            totalWeight -= cfsWeight(t.basePriority[row]);
+            return row;
+        }
+
+        @Override
+        int peakReady() { return ready.peakSize(); }
+    }
+
+    // ========================================================
+    // ALGORITHMS 7 and 8: Earliest Deadline First and Rate Monotonic
+    // ========================================================
+    public static RunMetrics runEDF(List<Process> processes, int contextSwitch) {
+        return runEDF(processes, contextSwitch, System.out);
+    }
+
+    public static RunMetrics runEDF(List<Process> processes, int contextSwitch, PrintStream out) {
+        out.println("\n========================================================");
+        out.println("               EDF Scheduler (Preemptive)");
+        out.println("========================================================");
+        ProcessTable table = ProcessTable.of(processes);
+        simulateEDF(table, contextSwitch);
+        table.copyResultsTo(processes);
+        printGantt(table, out);
+        RunMetrics metrics = table.metrics();
+        printResults(processes, table.executionOrder(), false, metrics, out);
+        return metrics;
+    }
+
+    public static RunMetrics runRM(List<Process> processes, int contextSwitch) {
+        return runRM(processes, contextSwitch, System.out);
+    }
+
+    public static RunMetrics runRM(List<Process> processes, int contextSwitch, PrintStream out) {
+        out.println("\n========================================================");
+        out.println("               Rate Monotonic (Preemptive)");
+        out.println("========================================================");
+        ProcessTable table = ProcessTable.of(processes);
+        simulateRM(table, contextSwitch);
+        table.copyResultsTo(processes);
+        printGantt(table, out);
+        RunMetrics metrics = table.metrics();
+        printResults(processes, table.executionOrder(), false, metrics, out);
+        return metrics;
+    }
+
+    public static void simulateEDF(ProcessTable t, int contextSwitch) {
+        t.reset();
+        new DeadlineScheduler(t, contextSwitch, EDF_ORDER).advanceTo(Integer.MAX_VALUE);
+    }
+
+    public static void simulateRM(ProcessTable t, int contextSwitch) {
+        t.reset();
+        new DeadlineScheduler(t, contextSwitch, RM_ORDER).advanceTo(Integer.MAX_VALUE);
+    }
+
+    // Earliest absolute deadline first; processes without one go last, in admission order
+    static final ProcessTable.Heap.Order EDF_ORDER = (t, a, b) ->
+        t.deadline[a] != t.deadline[b] ? t.deadline[a] < t.deadline[b] : t.admitted[a] < t.admitted[b];
+
+    // Shortest period first, then admission order
+    static final ProcessTable.Heap.Order RM_ORDER = (t, a, b) -> {
+        int ra = rate(t, a), rb = rate(t, b);
+        return ra != rb ? ra < rb : t.admitted[a] < t.admitted[b];
+    };
+
+    // A job's rate-monotonic rank: its task's period, or for a one-shot job
+    // its relative deadline (deadline-monotonic), or last without either
+    static int rate(ProcessTable t, int row) {
+        if (t.period[row] > 0) return t.period[row];
+        return t.deadline[row] == ProcessTable.NO_DEADLINE ? ProcessTable.NO_DEADLINE : t.deadline[row] - t.arrival[row];
+    }
+
+    // Preemptive dispatch in a fixed order: EDF_ORDER for EDF, RM_ORDER for
+    // rate monotonic. A key never changes once a process is admitted, so the
+    // running process only has to be compared with the head of the
+    // deadline-ordered heap when something arrives, and time jumps from one
+    // arrival or completion to the next. As in SJF, a context switch is
+    // charged whenever another process takes the CPU; one that arrives ahead
+    // of the process being switched in takes over when the switch ends.
+    static final class DeadlineScheduler extends Scheduler {
+        private static final int DECIDE = 0, SWITCH = 1, RUN = 2;
+
+        private final int contextSwitch;
+        private final ProcessTable.Heap.Order order;
+        private final ProcessTable.Heap ready;
+        private int phase = DECIDE;
+        private int active = -1;
+        private int switchEnd;
+
+        DeadlineScheduler(ProcessTable t, int contextSwitch, ProcessTable.Heap.Order order) {
+            this(t, t, contextSwitch, order);
+        }
+
+        DeadlineScheduler(ProcessTable t, Scheduler.Lane lane, int contextSwitch, ProcessTable.Heap.Order order) {
+            super(t, lane);
+            this.contextSwitch = contextSwitch;
+            this.order = order;
+            this.ready = lane.heapA(order);
+        }
+
+        @Override
+        void advance(int horizon) {
+            while(true) {
+                if(phase == SWITCH) {
+                    if(switchEnd > horizon) return;
+                    time = switchEnd;
+                    phase = DECIDE;
+                }
+
+                if(phase == RUN) {
+                    // Nothing is decided part way through a slice, so one cut
+                    // short by the horizon simply carries on from there
+                    int end = sliceEnd();
+                    if(end > horizon) {
+                        runUntil(horizon);
+                        return;
+                    }
+                    runUntil(end);
+                    phase = DECIDE;
+                }
+
+                if(time > horizon || lane.finished()) return;
+                admitArrivals(lane, ready, time);
+
+                if(!ready.isEmpty() && (active < 0 || order.before(t, ready.peek(), active))) {
+                    int next = ready.poll();
+                    if(active >= 0) ready.add(active);
+                    boolean charge = active >= 0 || time > 0;
+                    active = next;
+                    if(charge) {
+                        switchEnd = time + contextSwitch;
+                        contextSwitch(time, switchEnd);
+                        phase = SWITCH;
+                        continue;
+                    }
+                }
+
+                if(active >= 0) {
+                    phase = RUN;
+                } else {
+                    int next = lane.nextArrivalTime();
+                    if(next > horizon) return;
+                    time = next;
+                }
+            }
+        }
+
+        // The end of the burst, or the next arrival, which may preempt it
+        private int sliceEnd() {
+            int slice = t.remaining[active];
+            if(lane.hasArrivals()) slice = Math.min(slice, lane.nextArrivalTime() - time);
+            return time + slice;
+        }
+
+        private void runUntil(int end) {
+            if(end <= time) return;
+            run(active, time, end);
+            t.remaining[active] -= end - time;
+            time = end;
+
+            if(t.remaining[active] == 0) {
+                endBurst(active, time);
+                active = -1;
+            }
+        }
+
+        @Override
+        int nextEventTime() {
+            switch(phase) {
+                case SWITCH: return switchEnd;
+                case RUN: return sliceEnd();
+                default: return lane.nextArrivalTime();
+            }
+        }
+
+        @Override
+        int runningRow() { return phase == RUN ? active : -1; }
+
+        @Override
+        int[] readyRows() { return sorted(t, ready, order); }
+
+        @Override
+        int readySize() { return ready.size(); }
+
+        // A leaf of the heap, among the latest deadlines (or longest periods) waiting
+        @Override
+        int steal() {
+            if(ready.isEmpty()) return -1;
+            int row = ready.at(ready.size() - 1);
+            ready.remove(row);
+            return row;
+        }
+
+        @Override
+        int peakReady() { return ready.peakSize(); }
+    }
+
+    // ==========================================
+    // UPDATED TABLE PRINTING
+    // ==========================================
+    private static final int GANTT_SEGMENTS_PER_LINE = 12;
+
+    public static void printGantt(ProcessTable t, PrintStream out) {
+        out.println("\nGantt Chart:");
+        t.timeline.printGantt(t.name, GANTT_SEGMENTS_PER_LINE, out);
+    }
+
+    public static void printResults(List<Process> list, List<String> order, boolean isAG) {
+        printResults(list, order, isAG, System.out);
+    }
+
+    public static void printResults(List<Process> list, List<String> order, boolean isAG, PrintStream out) {
+        printResults(list, order, isAG, null, out);
+    }
+
+    public static void printResults(List<Process> list, List<String> order, boolean isAG, RunMetrics metrics, PrintStream out) {
+        // 1. Print Execution Order
+        out.println("\nExecution Order:");
+        if(!order.isEmpty()) {
+            out.print("[ " + order.get(0));
+            for(int i=1; i<order.size(); i++) {
+                if(!order.get(i).equals(order.get(i-1))) {
+                    out.print(" -> " + order.get(i));
+                }
+            }
+            out.println(" ]");
+        }
+
+        // 2. Prepare Table (Burst is CPU time; an I/O column follows it when
+        // any process blocks on I/O, and a Lateness column, completion minus
+        // deadline, follows Turnaround when any has a deadline)
+        out.println("\nProcess Execution Details:");
+        boolean io = false, deadlines = false;
+        for (Process p : list) {
+            io |= p.bursts != null;
+            deadlines |= p.deadline > 0;
+        }
+        String border = "+------------+-------------+------------+" + (io ? "------------+" : "")
+                + "-------------+------------------+-----------------+" + (deadlines ? "------------+" : "")
+                + (isAG ? "----------------------------------------+" : "");
+        String format = "| %-10s | %-11s | %-10s | " + (io ? "%-10s | " : "") + "%-11s | %-16s | %-15s |"
+                + (deadlines ? " %-10s |" : "") + (isAG ? " %-38s |" : "") + "%n";
+        List<Object> columns = new ArrayList<>(List.of("Process", "Arrival", "Burst"));
+        if (io) columns.add("I/O");
+        columns.addAll(List.of("Priority", "Waiting Time", "Turnaround"));
+        if (deadlines) columns.add("Lateness");
+        if (isAG) columns.add("Quantum History");
+        out.println(border);
+        out.printf(format, columns.toArray());
+        out.println(border);
+
+        list.sort(Comparator.comparing(p -> p.name));
+        double totalWait = 0, totalTurn = 0;
+
+        for (Process p : list) {
+            totalWait += p.waitingTime;
+            totalTurn += p.turnaroundTime;
+            columns.clear();
+            columns.addAll(List.of(p.name, p.arrivalTime, p.burstTime));
+            if (io) columns.add(p.ioTime());
+            columns.addAll(List.of(p.priority, p.waitingTime, p.turnaroundTime));
+            if (deadlines) {
+                int lateness = p.completionTime - ProcessTable.absoluteDeadline(p);
+                columns.add(p.deadline == 0 ? "-" : lateness > 0 ? "+" + lateness + " MISS" : String.valueOf(lateness));
+            }
+            if (isAG) columns.add(p.quantumHistory.toString());
+            out.printf(format, columns.toArray());
+        }
+
+        // 3. Footer & Averages
+        out.println(border);
+
+        out.printf("\nAverage Waiting Time:    %.2f%n", totalWait / list.size());
+        out.printf("Average Turnaround Time: %.2f%n", totalTurn / list.size());
+        if (metrics != null) printMetrics(metrics, isAG, out);
+        out.println("====================================================================================================\n");
+    }
+
+    public static void printMetrics(RunMetrics m, boolean isAG, PrintStream out) {
+        out.println("\nLatency                  p50      p90      p99      max");
+        printLatency("Waiting Time", m.waiting, out);
+        printLatency("Turnaround Time", m.turnaround, out);
+        printLatency("Response Time", m.response, out);
+        if (m.deadlineJobs > 0) printLatency("Tardiness", m.tardiness, out);
+        out.printf("\nCPU Utilisation:         %.2f%% (%d of %d units)%n", 100 * m.utilisation(), m.busyTime, m.span);
+        out.printf("Throughput:              %.4f processes/unit%n", m.throughput());
+        if (m.ioTime > 0) {
+            out.printf("I/O Wait:                %d units (%.2f per process)%n", m.ioTime, (double) m.ioTime / m.processes);
+        }
+        if (m.deadlineJobs > 0) {
+            out.printf("Deadline Misses:         %d of %d (%.2f%%), max lateness %d%n",
+                    m.deadlineMisses, m.deadlineJobs, 100 * m.missRate(), m.maxLateness);
+        }
+        out.printf("Context Switches:        %d (%d units)%n", m.contextSwitches, m.contextSwitchTime);
+        out.printf("Max Ready Queue:         %d%n", m.maxReadyQueue);
+        if (isAG) {
+            out.printf("AG Preemptions:          %d priority, %d SJF%n", m.agPriorityPreemptions, m.agSjfPreemptions);
+        }
+    }
+
+    private static void printLatency(String label, LatencyHistogram h, PrintStream out) {
+        out.printf("  %-20s %8d %8d %8d %8d%n", label, h.percentile(50), h.percentile(90), h.percentile(99), h.max());
+    }
+
+    // --- Utils ---
+
+    // Runs one algorithm ("sjf", "rr", "priority", "ag", "mlfq", "cfs", "edf" or "rm")
+    // straight on a table; MLFQ and CFS get the defaults for `rrQuantum`.
+    public static void simulate(String algorithm, ProcessTable t, int contextSwitch, int rrQuantum, int agingInterval) {
+        simulate(algorithm, t, contextSwitch, rrQuantum, agingInterval, Tuning.defaults(rrQuantum));
+    }
+
+    public static void simulate(String algorithm, ProcessTable t, int contextSwitch, int rrQuantum, int agingInterval, Tuning tuning) {
+        switch (algorithm) {
+            case "sjf": simulateSJF(t, contextSwitch); break;
+            case "rr": simulateRR(t, contextSwitch, rrQuantum); break;
+            case "priority": simulatePriority(t, contextSwitch, agingInterval); break;
+            case "ag": simulateAG(t); break;
+            case "mlfq": simulateMLFQ(t, contextSwitch, tuning.mlfq); break;
+            case "cfs": simulateCFS(t, contextSwitch, tuning.cfs); break;
+            case "edf": simulateEDF(t, contextSwitch); break;
+            case "rm": simulateRM(t, contextSwitch); break;
+            default: throw new IllegalArgumentException("unknown algorithm '" + algorithm + "'");
+        }
+    }
+
+    // The state machine simulate() runs, for driving a run one event at a
+    // time instead (see LiveRunner); `t` must be reset first
+    static Scheduler scheduler(String algorithm, ProcessTable t, int contextSwitch, int rrQuantum, int agingInterval, Tuning tuning) {
+        switch (algorithm) {
+            case "sjf": return new SJFScheduler(t, contextSwitch);
+            case "rr": return new RRScheduler(t, contextSwitch, rrQuantum);
+            case "priority": return new PriorityScheduler(t, contextSwitch, agingInterval);
+            case "ag": return new AGScheduler(t);
+            case "mlfq": return new MLFQScheduler(t, contextSwitch, tuning.mlfq);
+            case "cfs": return new CFSScheduler(t, contextSwitch, tuning.cfs);
+            case "edf": return new DeadlineScheduler(t, contextSwitch, EDF_ORDER);
+            case "rm": return new DeadlineScheduler(t, contextSwitch, RM_ORDER);
+            default: throw new IllegalArgumentException("unknown algorithm '" + algorithm + "'");
+        }
+    }
+
+    public static boolean isAGWorkload(String filename, Workload workload) {
+        return filename.toLowerCase().contains("ag") || workload.hasQuantum;
+    }
+
+    // What "auto" runs: AG for AG workloads, otherwise SJF, RR and Priority,
+    // plus EDF and RM when there are deadlines
+    static List<String> autoAlgorithms(String filename, Workload workload) {
+        if (isAGWorkload(filename, workload)) return List.of("ag");
+        return workload.hasDeadlines ? List.of("sjf", "rr", "priority", "edf", "rm") : List.of("sjf", "rr", "priority");
+    }
+
+    public static List<Process> cloneList(List<Process> list) {
+        List<Process> n = new ArrayList<>();
+        for(Process p : list) n.add(new Process(p));
+        return n;
+    }
+    
+    // Moves every process that has arrived by `time` into the ready queue and
+    // returns how many there were.
+    public static int admitArrivals(Scheduler.Lane lane, ProcessTable.Heap ready, int time) {
+        int admitted = 0;
+        for(; lane.arrivedBy(time); admitted++) ready.add(lane.admit());
+        return admitted;
+    }
+
+    public static int admitArrivals(Scheduler.Lane lane, ProcessTable.Fifo ready, int time) {
+        int admitted = 0;
+        for(; lane.arrivedBy(time); admitted++) ready.add(lane.admit());
+        return admitted;
+    }
+}
\ No newline at end of file
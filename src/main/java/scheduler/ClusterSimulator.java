@@ -0,0 +1,406 @@
+package scheduler;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// ==========================================
+// Cluster Simulation Mode
+// ==========================================
+// java -jar cpu-scheduler.jar --cluster <file> [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--threads R]
+// java -jar cpu-scheduler.jar --cluster --nodes K --generate N [generator options] [--threads R]
+//
+// Many independent single-CPU nodes, each scheduling its own workload. From a
+// file, processes are partitioned by their "node" field (0 when absent) and
+// every node keeps the file's context switch, RR quantum and aging interval.
+// With --generate every one of the K nodes (default 1000) gets N processes of
+// its own from the workload generator, seeded per node from --seed, and takes
+// the rest of the --generate options (see WorkloadGenerator).
+//
+// Nodes are simulated on a fork/join pool: the node range is split in halves
+// down to single nodes, so idle workers steal whatever is left regardless of
+// how uneven the nodes are. Each worker streams its nodes through one
+// reusable streaming table and adds every result into its own totals, so
+// nothing is shared until the workers' totals are merged at the end.
+// Percentiles are over every process in the cluster; utilisation is busy
+// time over the sum of the nodes' spans, and the worst node is the one with
+// the highest average waiting time. R is a thread count, a list or a range
+// as for --sweep (default: all cores); with several the whole cluster is run
+// once per count and the wall times are compared (the first run also warms
+// up the JIT, so for small clusters start with a throwaway count: 1,1,2,4).
+class ClusterSimulator {
+
+    private final int nodes;
+    private final NodeSource sources;
+    private final List<String> algorithms;
+    private final int contextSwitch, rrQuantum, agingInterval;
+    private final CPUScheduler.Tuning tuning;
+
+    // A node's workload, in arrival order
+    interface NodeSource {
+        ProcessTable.Source node(int index);
+
+        // The node's name in reports
+        int id(int index);
+    }
+
+    ClusterSimulator(int nodes, NodeSource sources, List<String> algorithms, int contextSwitch, int rrQuantum, int agingInterval,
+                     CPUScheduler.Tuning tuning) {
+        this.nodes = nodes;
+        this.sources = sources;
+        this.algorithms = algorithms;
+        this.contextSwitch = contextSwitch;
+        this.rrQuantum = rrQuantum;
+        this.agingInterval = agingInterval;
+        this.tuning = tuning;
+    }
+
+    // ==========================================
+    // Results
+    // ==========================================
+    // One algorithm's results over some set of nodes
+    static final class Totals {
+        final LatencyHistogram waiting = new LatencyHistogram();
+        final LatencyHistogram turnaround = new LatencyHistogram();
+        final LatencyHistogram response = new LatencyHistogram();
+        long processes, busyTime, switchTime, span;
+        int worstNode = -1;
+        double worstWaiting;
+
+        void add(int node, ProcessTable t) {
+            waiting.add(t.waitingTimes());
+            turnaround.add(t.turnaroundTimes());
+            response.add(t.responseTimes());
+            processes += t.completedCount();
+            busyTime += t.busyTime();
+            switchTime += t.switchTime();
+            span += t.span();
+            worse(node, t.averageWaiting());
+        }
+
+        void add(Totals other) {
+            waiting.add(other.waiting);
+            turnaround.add(other.turnaround);
+            response.add(other.response);
+            processes += other.processes;
+            busyTime += other.busyTime;
+            switchTime += other.switchTime;
+            span += other.span;
+            if (other.worstNode >= 0) worse(other.worstNode, other.worstWaiting);
+        }
+
+        // Ties go to the lower node, so the answer does not depend on which
+        // worker happened to simulate which node
+        private void worse(int node, double averageWaiting) {
+            if (worstNode < 0 || averageWaiting > worstWaiting || (averageWaiting == worstWaiting && node < worstNode)) {
+                worstNode = node;
+                worstWaiting = averageWaiting;
+            }
+        }
+
+        double utilisation() {
+            return span == 0 ? 0 : (double) busyTime / span;
+        }
+    }
+
+    // ==========================================
+    // Simulation
+    // ==========================================
+    // A pool thread's table and totals. The table reads from whichever node is
+    // being simulated, so its rows are allocated once per worker, not per node.
+    private final class Worker implements ProcessTable.Source {
+        final ProcessTable table = ProcessTable.streaming(this);
+        final Totals[] totals = new Totals[algorithms.size()];
+        private ProcessTable.Source node;
+
+        Worker() {
+            for (int a = 0; a < totals.length; a++) totals[a] = new Totals();
+        }
+
+        void simulate(int index) {
+            node = sources.node(index);
+            int id = sources.id(index);
+            for (int a = 0; a < totals.length; a++) {
+                CPUScheduler.simulate(algorithms.get(a), table, contextSwitch, rrQuantum, agingInterval, tuning);
+                totals[a].add(id, table);
+            }
+        }
+
+        @Override
+        public boolean next(CPUScheduler.Process into) { return node.next(into); }
+
+        // The table resets itself once before any node is set
+        @Override
+        public void rewind() {
+            if (node != null) node.rewind();
+        }
+    }
+
+    // Nodes [from, to), split until every task is a single node
+    private static final class Nodes extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final ThreadLocal<Worker> workers;
+
+        Nodes(int from, int to, ThreadLocal<Worker> workers) {
+            this.from = from;
+            this.to = to;
+            this.workers = workers;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                workers.get().simulate(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Nodes(from, mid, workers), new Nodes(mid, to, workers));
+        }
+    }
+
+    // Simulates every node on `threads` workers; one Totals per algorithm.
+    List<Totals> simulate(int threads) {
+        List<Worker> started = Collections.synchronizedList(new ArrayList<>());
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> {
+            Worker w = new Worker();
+            started.add(w);
+            return w;
+        });
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new Nodes(0, nodes, workers));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Totals> merged = new ArrayList<>();
+        for (int a = 0; a < algorithms.size(); a++) {
+            Totals total = new Totals();
+            for (Worker w : started) total.add(w.totals[a]);
+            merged.add(total);
+        }
+        return merged;
+    }
+
+    // ==========================================
+    // Node Workloads
+    // ==========================================
+    // A file's processes as columns grouped by node, each group in arrival
+    // order (ties in file order); a node reads its own slice.
+    private static final class Partition implements NodeSource {
+        final String[] name;
+        final int[] arrival, burst, priority, quantum;
+        final int[][] bursts;
+        final int[] deadline, period;
+        final int[] start; // node i owns rows [start[i], start[i + 1])
+        final int[] id;
+
+        Partition(List<CPUScheduler.Process> processes) {
+            int n = processes.size();
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparingInt((Integer i) -> processes.get(i).node)
+                                         .thenComparingInt(i -> processes.get(i).arrivalTime));
+            name = new String[n];
+            arrival = new int[n];
+            burst = new int[n];
+            priority = new int[n];
+            quantum = new int[n];
+            bursts = new int[n][];
+            deadline = new int[n];
+            period = new int[n];
+            List<Integer> starts = new ArrayList<>(), ids = new ArrayList<>();
+            for (int row = 0; row < n; row++) {
+                CPUScheduler.Process p = processes.get(order[row]);
+                if (row == 0 || p.node != ids.get(ids.size() - 1)) {
+                    starts.add(row);
+                    ids.add(p.node);
+                }
+                name[row] = p.name;
+                arrival[row] = p.arrivalTime;
+                burst[row] = p.burstTime;
+                priority[row] = p.priority;
+                quantum[row] = p.quantum;
+                bursts[row] = p.bursts;
+                deadline[row] = p.deadline;
+                period[row] = p.period;
+            }
+            starts.add(n);
+            start = starts.stream().mapToInt(Integer::intValue).toArray();
+            id = ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        int nodes() { return id.length; }
+
+        @Override
+        public int id(int index) { return id[index]; }
+
+        @Override
+        public ProcessTable.Source node(int index) {
+            return new ProcessTable.Source() {
+                private int row = start[index];
+
+                @Override
+                public boolean next(CPUScheduler.Process into) {
+                    if (row == start[index + 1]) return false;
+                    into.name = name[row];
+                    into.arrivalTime = arrival[row];
+                    into.burstTime = burst[row];
+                    into.priority = priority[row];
+                    into.quantum = quantum[row];
+                    into.bursts = bursts[row];
+                    into.deadline = deadline[row];
+                    into.period = period[row];
+                    row++;
+                    return true;
+                }
+
+                @Override
+                public void rewind() { row = start[index]; }
+            };
+        }
+    }
+
+    // Generated workloads, one seed per node drawn from the run's seed
+    private static NodeSource generated(int nodes, WorkloadGenerator.Options o) {
+        long[] seeds = new long[nodes];
+        SplittableRandom root = new SplittableRandom(o.seed);
+        for (int i = 0; i < nodes; i++) seeds[i] = root.nextLong();
+        return new NodeSource() {
+            @Override
+            public ProcessTable.Source node(int index) {
+                return new WorkloadGenerator(o.count, seeds[index], o.meanGap, o.burst, o.priority, o.quantum);
+            }
+
+            @Override
+            public int id(int index) { return index; }
+        };
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static int run(String[] args) {
+        Path file = null;
+        int nodes = 1000;
+        List<Integer> threadCounts = List.of(Runtime.getRuntime().availableProcessors());
+        List<String> algorithms = List.of("auto");
+        WorkloadGenerator.Options generator = new WorkloadGenerator.Options();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--cluster")) {
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) file = Paths.get(args[++i]);
+                    continue;
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException(option + " expects a value");
+                String value = args[++i];
+                switch (option) {
+                    case "--nodes": nodes = SweepRunner.parseRange(option, value, 1).get(0); break;
+                    case "--threads": threadCounts = SweepRunner.parseRange(option, value, 1); break;
+                    case "--algorithms":
+                        algorithms = Arrays.asList(value.toLowerCase().split(","));
+                        for (String a : algorithms) {
+                            if (!a.equals("auto") && !BatchRunner.ALGORITHMS.contains(a)) throw new IllegalArgumentException("unknown algorithm '" + a + "'");
+                        }
+                        break;
+                    case "--out":
+                    case "--trace":
+                        throw new IllegalArgumentException(option + " does not apply to --cluster");
+                    default:
+                        if (!generator.accept(option, value)) throw new IllegalArgumentException("unknown option '" + option + "'");
+                }
+            }
+            if ((file == null) == (generator.count < 0)) {
+                throw new IllegalArgumentException("--cluster expects either a workload file or --generate N");
+            }
+            if (file == null && algorithms.contains("ag") && generator.quantum == null) {
+                throw new IllegalArgumentException("AG needs a --quantum distribution");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --cluster <file> [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--threads R]");
+            System.out.println("       java -jar cpu-scheduler.jar --cluster --nodes K --generate N [--seed S] [--mean-gap G] [--burst D] [--priority D] [--quantum D|none] [--context-switch C] [--rr-quantum Q] [--aging A] [--algorithms ...] [--threads R]");
+            return 2;
+        }
+
+        ClusterSimulator cluster;
+        long processes;
+        if (file != null) {
+            CPUScheduler.Workload w;
+            try {
+                w = WorkloadParser.parse(file);
+            } catch (java.io.IOException e) {
+                System.out.println("Error: " + e.getMessage());
+                return 1;
+            }
+            if (w.processes.isEmpty()) {
+                System.out.println("Error: No processes found.");
+                return 1;
+            }
+            if (algorithms.contains("auto")) {
+                algorithms = CPUScheduler.autoAlgorithms(file.getFileName().toString(), w);
+            }
+            Partition partition = new Partition(w.processes);
+            processes = w.processes.size();
+            cluster = new ClusterSimulator(partition.nodes(), partition, algorithms, w.contextSwitch, w.rrQuantum, w.agingInterval, w.tuning());
+            System.out.println("Cluster: " + file.getFileName() + " (" + partition.nodes() + " nodes, " + processes + " processes) [CS: "
+                    + w.contextSwitch + "] [RR: " + w.rrQuantum + "] [Aging: " + w.agingInterval + "]");
+        } else {
+            if (algorithms.contains("auto")) {
+                algorithms = generator.quantum == null ? List.of("sjf", "rr", "priority") : List.of("sjf", "rr", "priority", "ag");
+            }
+            processes = nodes * generator.count;
+            cluster = new ClusterSimulator(nodes, generated(nodes, generator), algorithms,
+                    generator.contextSwitch, generator.rrQuantum, generator.agingInterval,
+                    CPUScheduler.Tuning.defaults(generator.rrQuantum));
+            System.out.println("Cluster: " + nodes + " nodes x " + generator.count + " processes, seed " + generator.seed
+                    + ", mean gap " + generator.meanGap + ", burst " + generator.burst + ", priority " + generator.priority
+                    + ", quantum " + (generator.quantum == null ? "none" : generator.quantum) + " [CS: " + generator.contextSwitch
+                    + "] [RR: " + generator.rrQuantum + "] [Aging: " + generator.agingInterval + "]");
+        }
+
+        List<Totals> results = null;
+        double[] seconds = new double[threadCounts.size()];
+        for (int i = 0; i < threadCounts.size(); i++) {
+            long start = System.nanoTime();
+            results = cluster.simulate(threadCounts.get(i));
+            seconds[i] = (System.nanoTime() - start) / 1e9;
+        }
+        printResults(algorithms, results);
+        printScaling(threadCounts, seconds, processes * algorithms.size());
+        return 0;
+    }
+
+    private static void printResults(List<String> algorithms, List<Totals> results) {
+        String line = "+-----------+-------------+-------------+-------------+---------------+----------------+----------------+-------------+------------------+";
+        System.out.println(line);
+        System.out.printf("| %-9s | %-11s | %-11s | %-11s | %-13s | %-14s | %-14s | %-11s | %-16s |%n",
+                "Algorithm", "Avg Waiting", "P50 Waiting", "P99 Waiting", "P99.9 Waiting", "Avg Turnaround", "P99 Turnaround",
+                "Utilisation", "Worst Node");
+        System.out.println(line);
+        for (int a = 0; a < algorithms.size(); a++) {
+            Totals t = results.get(a);
+            System.out.printf("| %-9s | %-11.2f | %-11d | %-11d | %-13d | %-14.2f | %-14d | %-11s | %-16s |%n",
+                    BatchRunner.LABELS.get(algorithms.get(a)), t.waiting.mean(), t.waiting.percentile(50), t.waiting.percentile(99),
+                    t.waiting.percentile(99.9), t.turnaround.mean(), t.turnaround.percentile(99),
+                    String.format("%.2f%%", 100 * t.utilisation()), String.format("%d (%.2f)", t.worstNode, t.worstWaiting));
+        }
+        System.out.println(line);
+    }
+
+    // Speedup is against the first thread count given
+    private static void printScaling(List<Integer> threadCounts, double[] seconds, long simulated) {
+        String line = "+---------+----------+---------------+---------+";
+        System.out.println(line);
+        System.out.printf("| %-7s | %-8s | %-13s | %-7s |%n", "Threads", "Wall (s)", "Processes/s", "Speedup");
+        System.out.println(line);
+        for (int i = 0; i < threadCounts.size(); i++) {
+            System.out.printf("| %-7d | %-8.3f | %-13.0f | %-7.2f |%n",
+                    threadCounts.get(i), seconds[i], simulated / seconds[i], seconds[0] / seconds[i]);
+        }
+        System.out.println(line);
+    }
+}
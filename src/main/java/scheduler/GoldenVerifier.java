@@ -0,0 +1,423 @@
+package scheduler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+// ==========================================
+// Golden-File Verifier & Performance Gate
+// ==========================================
+// java -jar cpu-scheduler.jar --verify [<dir>] [--baseline <file>] [--update-baseline]
+//                           [--tolerance PCT] [--round-ms MS] [--accepted <file>] [--accept-divergences]
+//
+// Runs every algorithm named in the expectedOutput of each test_*.json and
+// AG_test*.json in <dir> (default ".") and compares the execution order, each
+// process's waiting and turnaround time, its quantumHistory (AG) and the two
+// averages with the expected values. A divergence listed in the accepted file
+// (default verify-accepted.properties in <dir>) with exactly the problems
+// found is reported as KNOWN and does not fail the run; any other problem on
+// that pair still does. --accept-divergences rewrites the file with the
+// divergences just found.
+//
+// Then every (file, algorithm) is timed as back-to-back simulations for MS
+// milliseconds (default 10) per round. Each check takes well under a
+// millisecond, so one round is too noisy to gate on: there are three warm-up
+// passes and fifteen measured ones, interleaved so that a JIT compilation
+// lands on every pair alike, and each pass also times a fixed spin loop.
+// A pair's time is the median of its rounds, each taken relative to the
+// loop's round in the same pass, which cancels out the machine running
+// faster or slower from one run to the next. With a baseline file (default
+// verify-baseline.properties in <dir>) a pair fails the gate when it is more
+// than PCT% (default 50) plus its own spread (the interquartile range
+// of its rounds) slower than recorded; --update-baseline rewrites the file
+// with the times just measured. Exit status 0 means every check passed or
+// was accepted, 1 that something diverged or regressed.
+class GoldenVerifier {
+
+    private static final int WARMUP_PASSES = 3, PASSES = 15;
+    private static final String BASELINE_FORMAT = "2";
+
+    private Path dir = Paths.get(".");
+    private Path baselineFile, acceptedFile;
+    private boolean updateBaseline, acceptDivergences;
+    private double tolerance = 50;
+    private long roundNanos = 10_000_000;
+
+    // One (file, algorithm) pair and how it fared
+    private static class Check {
+        final String file, label;
+        final List<String> problems = new ArrayList<>();
+        String algorithm;
+        ProcessTable table;
+        CPUScheduler.Workload workload;
+        double relative; // median per simulation over the reference loop's
+        double micros;   // the same at this run's median reference speed
+        double noise;    // interquartile range of the rounds over the median
+        Double baseline; // relative
+        boolean regressed, accepted;
+
+        Check(String file, String label) {
+            this.file = file;
+            this.label = label;
+        }
+
+        String key() { return file + "/" + label; }
+    }
+
+    public static int run(String[] args) {
+        GoldenVerifier verifier = new GoldenVerifier();
+        try {
+            verifier.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --verify [<dir>] [--baseline <file>] [--update-baseline] [--tolerance PCT] [--round-ms MS] [--accepted <file>] [--accept-divergences]");
+            return 2;
+        }
+        return verifier.verify();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--verify":
+                    if (value != null && !value.startsWith("--")) {
+                        dir = Paths.get(value);
+                        i++;
+                    }
+                    break;
+                case "--baseline":
+                    if (value == null) throw new IllegalArgumentException("--baseline expects a file");
+                    baselineFile = Paths.get(value);
+                    i++;
+                    break;
+                case "--update-baseline":
+                    updateBaseline = true;
+                    break;
+                case "--accepted":
+                    if (value == null) throw new IllegalArgumentException("--accepted expects a file");
+                    acceptedFile = Paths.get(value);
+                    i++;
+                    break;
+                case "--accept-divergences":
+                    acceptDivergences = true;
+                    break;
+                case "--tolerance":
+                    try {
+                        tolerance = Double.parseDouble(String.valueOf(value));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--tolerance expects a percentage");
+                    }
+                    if (!(tolerance >= 0)) throw new IllegalArgumentException("--tolerance must be at least 0");
+                    i++;
+                    break;
+                case "--round-ms":
+                    roundNanos = SweepRunner.parseRange(args[i], String.valueOf(value), 1).get(0) * 1_000_000L;
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+            }
+        }
+        if (baselineFile == null) baselineFile = dir.resolve("verify-baseline.properties");
+        if (acceptedFile == null) acceptedFile = dir.resolve("verify-accepted.properties");
+    }
+
+    private int verify() {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(f -> {
+                String n = f.getFileName().toString();
+                return Files.isRegularFile(f) && n.endsWith(".json") && (n.startsWith("test_") || n.startsWith("AG_test"));
+            }).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            System.out.println("Error: cannot read " + dir + ": " + e.getMessage());
+            return 1;
+        }
+        if (files.isEmpty()) {
+            System.out.println("Error: No test_*.json or AG_test*.json files in " + dir);
+            return 1;
+        }
+
+        Properties baseline = loadBaseline();
+        Properties accepted = load(acceptedFile);
+        List<Check> checks = new ArrayList<>();
+        for (Path file : files) checks.addAll(verifyFile(file));
+        for (Check c : checks) {
+            c.accepted = !c.problems.isEmpty() && accepted != null && problems(c).equals(accepted.getProperty(c.key()));
+        }
+
+        List<Check> timed = checks.stream().filter(c -> c.table != null).collect(Collectors.toList());
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            for (Check c : timed) round(c);
+        }
+        double[][] rounds = new double[timed.size()][PASSES];
+        double[] reference = new double[PASSES];
+        for (int pass = 0; pass < PASSES; pass++) {
+            reference[pass] = referenceRound();
+            for (int i = 0; i < timed.size(); i++) rounds[i][pass] = round(timed.get(i)) / reference[pass];
+        }
+        Arrays.sort(reference);
+        for (int i = 0; i < timed.size(); i++) {
+            double[] r = rounds[i];
+            Arrays.sort(r);
+            Check c = timed.get(i);
+            c.relative = r[PASSES / 2];
+            c.micros = c.relative * reference[PASSES / 2];
+            c.noise = (r[PASSES * 3 / 4] - r[PASSES / 4]) / c.relative;
+        }
+        for (Check c : timed) {
+            String recorded = baseline == null ? null : baseline.getProperty(c.key());
+            if (recorded != null) {
+                c.baseline = Double.parseDouble(recorded);
+                c.regressed = c.relative > c.baseline * (1 + tolerance / 100 + c.noise);
+            }
+        }
+
+        printReport(checks, baseline != null, reference[PASSES / 2]);
+        if (updateBaseline) {
+            try {
+                saveBaseline(checks);
+                System.out.println("Baseline written to " + baselineFile);
+            } catch (IOException e) {
+                System.out.println("Error: cannot write " + baselineFile + ": " + e.getMessage());
+                return 1;
+            }
+        }
+        if (acceptDivergences) {
+            try {
+                saveAccepted(checks);
+                for (Check c : checks) c.accepted = !c.problems.isEmpty();
+                System.out.println("Accepted divergences written to " + acceptedFile);
+            } catch (IOException e) {
+                System.out.println("Error: cannot write " + acceptedFile + ": " + e.getMessage());
+                return 1;
+            }
+        }
+
+        long failed = checks.stream().filter(c -> !c.problems.isEmpty() && !c.accepted).count();
+        long known = checks.stream().filter(c -> c.accepted).count();
+        long regressed = checks.stream().filter(c -> c.regressed).count();
+        System.out.printf("%nVerify complete: %d checks, %d diverged (%d accepted), %d regressed%n",
+                checks.size(), failed, known, regressed);
+        return failed == 0 && regressed == 0 ? 0 : 1;
+    }
+
+    private List<Check> verifyFile(Path file) {
+        String fileName = file.getFileName().toString();
+        CPUScheduler.Workload w;
+        try {
+            w = WorkloadParser.parse(file);
+        } catch (IOException e) {
+            Check c = new Check(fileName, "-");
+            c.problems.add(e.getMessage());
+            return List.of(c);
+        }
+
+        List<Check> checks = new ArrayList<>();
+        if (w.expected.isEmpty()) {
+            Check c = new Check(fileName, "-");
+            c.problems.add("no expectedOutput");
+            checks.add(c);
+            return checks;
+        }
+        ProcessTable table = ProcessTable.of(w.processes);
+        for (Map.Entry<String, CPUScheduler.Expected> e : w.expected.entrySet()) {
+            // The unlabelled block belongs to whatever the interactive menu would run
+            String label = e.getKey().isEmpty()
+                    ? (CPUScheduler.isAGWorkload(fileName, w) ? "AG" : "SJF")
+                    : e.getKey();
+            Check c = new Check(fileName, label);
+            checks.add(c);
+            String algorithm = algorithmFor(label);
+            if (algorithm == null) {
+                c.problems.add("unknown algorithm label \"" + label + "\"");
+                continue;
+            }
+            CPUScheduler.simulate(algorithm, table, w.contextSwitch, w.rrQuantum, w.agingInterval, w.tuning());
+            compare(table, e.getValue(), c.problems);
+            c.algorithm = algorithm;
+            c.table = table.share();
+            c.workload = w;
+        }
+        return checks;
+    }
+
+    private static String algorithmFor(String label) {
+        for (Map.Entry<String, String> e : BatchRunner.LABELS.entrySet()) {
+            if (e.getValue().equalsIgnoreCase(label)) return e.getKey();
+        }
+        return null;
+    }
+
+    // ---- Correctness ----
+
+    private static void compare(ProcessTable t, CPUScheduler.Expected expected, List<String> problems) {
+        if (expected.executionOrder != null) {
+            List<String> order = t.executionOrder();
+            if (!order.equals(expected.executionOrder)) {
+                problems.add("executionOrder: expected " + expected.executionOrder + ", got " + order);
+            }
+        }
+        if (expected.processResults != null) {
+            Map<String, Integer> rowByName = new HashMap<>();
+            for (int r = 0; r < t.size; r++) rowByName.put(t.name[r], r);
+            for (CPUScheduler.ExpectedResult e : expected.processResults) {
+                Integer row = rowByName.get(e.name);
+                if (row == null) {
+                    problems.add(e.name + ": not in the workload");
+                    continue;
+                }
+                check(problems, e.name + " waitingTime", e.waitingTime, t.waiting[row]);
+                check(problems, e.name + " turnaroundTime", e.turnaroundTime, t.turnaround[row]);
+                if (e.quantumHistory != null) {
+                    List<Integer> history = new ArrayList<>();
+                    for (int i = 0, n = t.historyLength(row); i < n; i++) history.add(t.history(row, i));
+                    if (!history.equals(e.quantumHistory)) {
+                        problems.add(e.name + " quantumHistory: expected " + e.quantumHistory + ", got " + history);
+                    }
+                }
+            }
+        }
+        checkAverage(problems, "averageWaitingTime", expected.averageWaitingTime, t.averageWaiting());
+        checkAverage(problems, "averageTurnaroundTime", expected.averageTurnaroundTime, t.averageTurnaround());
+    }
+
+    private static void check(List<String> problems, String what, Integer expected, int actual) {
+        if (expected != null && expected != actual) {
+            problems.add(what + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    // Expected averages are written to 2 decimal places
+    private static void checkAverage(List<String> problems, String what, Double expected, double actual) {
+        if (expected != null && Math.abs(expected - actual) > 0.005 + 1e-9) {
+            problems.add(what + ": expected " + expected + ", got " + String.format("%.2f", actual));
+        }
+    }
+
+    // ---- Timing ----
+
+    // Simulates back to back for at least roundNanos; returns microseconds per simulation.
+    private double round(Check c) {
+        CPUScheduler.Workload w = c.workload;
+        long start = System.nanoTime();
+        long elapsed;
+        int runs = 0;
+        do {
+            for (int i = 0; i < 100; i++) {
+                CPUScheduler.simulate(c.algorithm, c.table, w.contextSwitch, w.rrQuantum, w.agingInterval, w.tuning());
+            }
+            runs += 100;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < roundNanos);
+        return elapsed / 1e3 / runs;
+    }
+
+    private static volatile long sink; // keeps the reference loop from being optimised away
+
+    // A fixed amount of pure CPU work, timed like a round: microseconds per
+    // 1000 rounds of xorshift
+    private double referenceRound() {
+        long start = System.nanoTime(), elapsed, x = 1;
+        int runs = 0;
+        do {
+            for (int i = 0; i < 100; i++) {
+                for (int j = 0; j < 1000; j++) {
+                    x ^= x << 13;
+                    x ^= x >>> 7;
+                    x ^= x << 17;
+                }
+            }
+            runs += 100;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < roundNanos);
+        sink = x;
+        return elapsed / 1e3 / runs;
+    }
+
+    // Times recorded before they were taken relative to the reference loop
+    // are in microseconds and cannot be compared
+    private Properties loadBaseline() {
+        Properties p = load(baselineFile);
+        if (p != null && !BASELINE_FORMAT.equals(p.getProperty("format"))) {
+            System.out.println("Warning: " + baselineFile + " is from an older version; rerun with --update-baseline.");
+            return null;
+        }
+        return p;
+    }
+
+    private static Properties load(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            p.load(r);
+        } catch (IOException e) {
+            System.out.println("Warning: cannot read " + file + ": " + e.getMessage());
+            return null;
+        }
+        return p;
+    }
+
+    private void saveBaseline(List<Check> checks) throws IOException {
+        try (Writer w = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+            w.write("# Time per simulation over the reference loop's, written by --verify --update-baseline\n");
+            w.write("format=" + BASELINE_FORMAT + "\n");
+            for (Check c : checks) {
+                if (c.relative > 0) w.write(c.key() + "=" + String.format(Locale.ROOT, "%.6f", c.relative) + "\n");
+            }
+        }
+    }
+
+    // Every pair's problems as one line, the form they are accepted in
+    private static String problems(Check c) {
+        return String.join(" | ", c.problems);
+    }
+
+    private void saveAccepted(List<Check> checks) throws IOException {
+        Properties p = new Properties();
+        for (Check c : checks) {
+            if (!c.problems.isEmpty()) p.setProperty(c.key(), problems(c));
+        }
+        // Properties.store escapes the values; its date line is dropped so
+        // the file only changes when the divergences do
+        StringWriter out = new StringWriter();
+        p.store(out, null);
+        List<String> lines = new ArrayList<>(Arrays.asList(out.toString().split("\\R")));
+        lines.removeIf(l -> l.startsWith("#"));
+        Collections.sort(lines);
+        try (Writer w = Files.newBufferedWriter(acceptedFile, StandardCharsets.UTF_8)) {
+            w.write("# Known divergences from expectedOutput, written by --verify --accept-divergences\n");
+            for (String l : lines) w.write(l + "\n");
+        }
+    }
+
+    // ---- Report ----
+
+    // Baselines are shown at this run's reference speed, in microseconds
+    private void printReport(List<Check> checks, boolean haveBaseline, double referenceMicros) {
+        String line = "+------------------+-----------+--------+-------------+---------------+----------+--------+";
+        System.out.println("\nGolden Verification (" + dir + ")");
+        System.out.println(line);
+        System.out.printf("| %-16s | %-9s | %-6s | %-11s | %-13s | %-8s | %-6s |%n",
+                "File", "Algorithm", "Result", "Time (us)", "Baseline (us)", "Change", "Spread");
+        System.out.println(line);
+        for (Check c : checks) {
+            String result = !c.problems.isEmpty() ? (c.accepted ? "KNOWN" : "FAIL") : c.regressed ? "SLOW" : "PASS";
+            String base = c.baseline == null ? "-" : String.format("%.3f", c.baseline * referenceMicros);
+            String change = c.baseline == null ? "-" : String.format("%+.1f%%", 100 * (c.relative / c.baseline - 1));
+            System.out.printf("| %-16s | %-9s | %-6s | %-11.3f | %-13s | %-8s | %-6s |%n",
+                    c.file, c.label, result, c.micros, base, change, String.format("%.1f%%", 100 * c.noise));
+        }
+        System.out.println(line);
+        if (!haveBaseline) System.out.println("No baseline at " + baselineFile + "; timings are not gated.");
+
+        for (Check c : checks) {
+            if (c.problems.isEmpty()) continue;
+            System.out.println("\n" + c.file + " (" + c.label + (c.accepted ? ", accepted" : "") + "):");
+            for (String p : c.problems) System.out.println("  " + p);
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package scheduler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// ==========================================
+// Kernel Trace Importer
+// ==========================================
+// java -jar cpu-scheduler.jar --import <trace> [--unit ns|us|ms] [--cpus N] [--quantum Q]
+//                           [--context-switch C] [--rr-quantum Q] [--aging A]
+//                           [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--out <file>]
+//
+// Turns a Linux scheduler trace into a workload. The input is the text of
+// `perf script` after `perf sched record`, or an ftrace dump (the trace or
+// trace_pipe file) with the sched_switch and sched_wakeup events enabled,
+// in either the key=value or perf's compact "comm:pid [prio]" form;
+// it is read a line at a time, so its size only matters for the bursts it
+// yields. Every other line is skipped.
+//
+// Each CPU burst of each task becomes one process: it arrives when the task
+// is woken (sched_wakeup / sched_wakeup_new) and lasts for the CPU time the
+// task gets until it is switched out in any state other than runnable (R),
+// i.e. until it sleeps, blocks or exits. Preemptions do not end a burst.
+// A burst already under way when the trace starts, or still open when it
+// ends, is dropped. The priority is the kernel's nice value mapped onto the
+// simulator's scale, where smaller runs first and 1 is the floor: nice -20
+// is 1, nice 0 is 21, nice 19 is 40, and real-time tasks are 1. Times count
+// from the first event in units of --unit (default us); bursts round up to
+// at least one unit. Processes are named comm-pid#n, n counting that task's
+// bursts.
+//
+// The kernel's own waiting time for a burst is the time from its wakeup to
+// its last switch-out minus the CPU time it got, which includes both the
+// run-queue delay and every preemption. Without --out the workload is
+// simulated on as many CPUs as the trace shows (--cpus to override; SMP
+// runs use work stealing with no migration cost) and set against what the
+// kernel did. With --out it is written as a JSON workload instead, to be
+// run through any other mode. Context switches default to 0, the RR
+// quantum to 4 ms and the aging interval to 10 ms; AG needs --quantum.
+class KernelTraceImporter {
+
+    private static final int SWITCH = 0, WAKEUP = 1;
+
+    private final long unit; // nanoseconds per time unit
+
+    // One kernel task (pid) and its burst in progress
+    private static final class Task {
+        String comm;
+        int prio;
+        long arrival = -1;      // ns; -1 while no burst is open
+        long cpu;               // ns run so far in the open burst
+        long runningSince = -1; // ns; -1 while off the CPU
+        boolean partial;        // the open burst began before the trace did
+        int bursts;
+    }
+
+    private final Map<Integer, Task> tasks = new HashMap<>();
+
+    // The task named by the event being parsed
+    private String comm, state;
+    private int pid, prio;
+
+    // Completed bursts in completion order, times in ns
+    private String[] name = new String[1024];
+    private long[] arrival = new long[1024], cpu = new long[1024], done = new long[1024];
+    private int[] kernelPrio = new int[1024];
+    private int bursts;
+
+    long lines, events, dropped;
+    private long first = -1, last;
+    private int maxCpu = -1;
+
+    KernelTraceImporter(long unit) {
+        this.unit = unit;
+    }
+
+    // ==========================================
+    // Parsing
+    // ==========================================
+    void read(Path file) throws IOException {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            for (String line; (line = in.readLine()) != null; ) {
+                lines++;
+                try {
+                    line(line);
+                } catch (RuntimeException e) {
+                    throw new IOException(file + ": line " + lines + ": cannot parse \"" + line.trim() + "\"");
+                }
+            }
+        }
+        // Whatever is still open never finished inside the trace
+        for (Task t : tasks.values()) {
+            if (t.arrival >= 0) dropped++;
+        }
+    }
+
+    // ftrace:  <comm>-<pid> [001] d..3  1234.567890: sched_switch: prev_comm=... ==> next_comm=...
+    // perf:    <comm> <pid> [001]  1234.567890: sched:sched_switch: prev_comm=... ==> next_comm=...
+    //          <comm> <pid> [001]  1234.567890: sched:sched_switch: comm:pid [prio] S ==> comm:pid [prio]
+    private void line(String s) {
+        int kind, at;
+        if ((at = s.indexOf("sched_switch: ")) >= 0) {
+            kind = SWITCH;
+        } else if ((at = s.indexOf("sched_wakeup: ")) >= 0 || (at = s.indexOf("sched_wakeup_new: ")) >= 0) {
+            kind = WAKEUP;
+        } else {
+            return;
+        }
+        // The timestamp is the token before the event name ("sched:" prefix and all)
+        int event = s.lastIndexOf(' ', at) + 1;
+        int colon = event - 1;
+        while (colon >= 0 && s.charAt(colon) == ' ') colon--;
+        if (colon < 0 || s.charAt(colon) != ':') throw new IllegalArgumentException();
+        int stamp = s.lastIndexOf(' ', colon) + 1;
+        long time = nanos(s, stamp, colon);
+        int open = s.lastIndexOf('[', stamp);
+        if (open >= 0) maxCpu = Math.max(maxCpu, Integer.parseInt(s, open + 1, s.indexOf(']', open), 10));
+        if (first < 0) first = time;
+        last = Math.max(last, time);
+        events++;
+
+        int fields = s.indexOf(": ", at) + 2;
+        if (kind == WAKEUP) {
+            if (s.startsWith("comm=", fields)) {
+                pid = number(s, fields, " pid=");
+                comm = text(s, fields, "comm=", " pid=");
+                prio = number(s, fields, " prio=");
+            } else {
+                endpoint(s, fields, s.length());
+            }
+            Task t = task(pid, comm, prio);
+            if (t.arrival < 0) {
+                t.arrival = time;
+                t.cpu = 0;
+                t.partial = false;
+            }
+            return;
+        }
+
+        int arrow = s.indexOf(" ==> ", fields);
+        if (arrow < 0) throw new IllegalArgumentException();
+        boolean keyed = s.startsWith("prev_comm=", fields);
+        if (keyed) {
+            pid = number(s, fields, " prev_pid=");
+            state = text(s, fields, "prev_state=", " ");
+        } else {
+            endpoint(s, fields, arrow);
+        }
+        if (pid != 0) {
+            Task t = tasks.get(pid);
+            if (t != null && t.runningSince >= 0) {
+                t.cpu += time - t.runningSince;
+                t.runningSince = -1;
+                if (!state.startsWith("R") && t.arrival >= 0) {
+                    if (t.partial) dropped++;
+                    else add(pid, t, time);
+                    t.arrival = -1;
+                }
+            }
+        }
+        if (keyed) {
+            pid = number(s, arrow, " next_pid=");
+            comm = text(s, arrow, "next_comm=", " next_pid=");
+            prio = number(s, arrow, " next_prio=");
+        } else {
+            endpoint(s, arrow + 5, s.length());
+        }
+        if (pid != 0) {
+            Task t = task(pid, comm, prio);
+            if (t.arrival < 0) {
+                // Runnable without a wakeup in the trace: it was waiting before it began
+                t.arrival = time;
+                t.cpu = 0;
+                t.partial = true;
+            }
+            t.runningSince = time;
+        }
+    }
+
+    // perf's compact form, "comm:pid [prio] rest" (rest is the previous
+    // task's state in a switch); comm may itself contain ':' and spaces
+    private void endpoint(String s, int from, int to) {
+        int open = s.indexOf(" [", from);
+        while (open >= 0 && open < to) {
+            int close = s.indexOf(']', open);
+            int colon = s.lastIndexOf(':', open);
+            if (close > 0 && close < to && colon >= from && isNumber(s, colon + 1, open) && isNumber(s, open + 2, close)) {
+                comm = s.substring(from, colon);
+                pid = Integer.parseInt(s, colon + 1, open, 10);
+                prio = Integer.parseInt(s, open + 2, close, 10);
+                state = s.substring(Math.min(close + 1, to), to).trim();
+                return;
+            }
+            open = s.indexOf(" [", open + 1);
+        }
+        throw new IllegalArgumentException();
+    }
+
+    private static boolean isNumber(String s, int from, int to) {
+        if (from < to && s.charAt(from) == '-') from++;
+        if (from >= to) return false;
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private Task task(int pid, String comm, int prio) {
+        Task t = tasks.computeIfAbsent(pid, p -> new Task());
+        t.comm = comm;
+        t.prio = prio;
+        return t;
+    }
+
+    private void add(int pid, Task t, long time) {
+        if (bursts == name.length) {
+            int n = 2 * bursts;
+            name = Arrays.copyOf(name, n);
+            arrival = Arrays.copyOf(arrival, n);
+            cpu = Arrays.copyOf(cpu, n);
+            done = Arrays.copyOf(done, n);
+            kernelPrio = Arrays.copyOf(kernelPrio, n);
+        }
+        name[bursts] = t.comm + "-" + pid + "#" + (++t.bursts);
+        arrival[bursts] = t.arrival;
+        cpu[bursts] = t.cpu;
+        done[bursts] = time;
+        kernelPrio[bursts] = t.prio;
+        bursts++;
+    }
+
+    // "1234.567890" (any number of decimals) in nanoseconds
+    private static long nanos(String s, int from, int to) {
+        int dot = s.indexOf('.', from);
+        if (dot < 0 || dot > to) return Long.parseLong(s, from, to, 10) * 1_000_000_000L;
+        long ns = Long.parseLong(s, from, dot, 10) * 1_000_000_000L;
+        long scale = 100_000_000L;
+        for (int i = dot + 1; i < to && scale > 0; i++, scale /= 10) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') throw new IllegalArgumentException();
+            ns += (c - '0') * scale;
+        }
+        return ns;
+    }
+
+    // The integer after `key`, searching from `from`
+    private static int number(String s, int from, String key) {
+        int start = s.indexOf(key, from);
+        if (start < 0) throw new IllegalArgumentException();
+        start += key.length();
+        int end = start;
+        if (end < s.length() && s.charAt(end) == '-') end++;
+        while (end < s.length() && Character.isDigit(s.charAt(end))) end++;
+        return Integer.parseInt(s, start, end, 10);
+    }
+
+    // The text between `key` and `until` (or the end of the line); comm may contain spaces
+    private static String text(String s, int from, String key, String until) {
+        int start = s.indexOf(key, from);
+        if (start < 0) throw new IllegalArgumentException();
+        start += key.length();
+        int end = s.indexOf(until, start);
+        return s.substring(start, end < 0 ? s.length() : end);
+    }
+
+    // ==========================================
+    // Workload
+    // ==========================================
+    int bursts() { return bursts; }
+    int cpus() { return maxCpu + 1; }
+    int tasks() { return tasks.size(); }
+    int span() { return units(last - first); }
+
+    private int units(long ns) {
+        long u = ns / unit;
+        if (u > Integer.MAX_VALUE) throw new IllegalStateException("the trace spans more than the simulator's int clock; use a coarser --unit");
+        return (int) u;
+    }
+
+    // Kernel priority (0-99 real-time, 100-139 for nice -20..19) on the simulator's scale
+    static int priority(int kernelPrio) {
+        return Math.max(1, kernelPrio - 99);
+    }
+
+    // Bursts in arrival order (ties in completion order); each is the
+    // index of a completed burst
+    private int[] byArrival() {
+        long[] keys = new long[bursts];
+        for (int i = 0; i < bursts; i++) keys[i] = (long) units(arrival[i] - first) << 32 | i;
+        Arrays.sort(keys);
+        int[] order = new int[bursts];
+        for (int i = 0; i < bursts; i++) order[i] = (int) keys[i];
+        return order;
+    }
+
+    // The workload's columns, in arrival order
+    private String[] names;
+    private int[] arrivals, lengths, priorities, quanta;
+
+    private void columns(int quantum) {
+        int[] order = byArrival();
+        names = new String[bursts];
+        arrivals = new int[bursts];
+        lengths = new int[bursts];
+        priorities = new int[bursts];
+        quanta = new int[bursts];
+        for (int row = 0; row < bursts; row++) {
+            int i = order[row];
+            names[row] = name[i];
+            arrivals[row] = units(arrival[i] - first);
+            lengths[row] = burst(i);
+            priorities[row] = priority(kernelPrio[i]);
+            quanta[row] = quantum;
+        }
+    }
+
+    ProcessTable table(int quantum) {
+        columns(quantum);
+        return ProcessTable.of(names, arrivals, lengths, priorities, quanta);
+    }
+
+    // The same workload as a stream, for writing it out
+    ProcessTable.Source source() {
+        return new ProcessTable.Source() {
+            private int row;
+
+            @Override
+            public boolean next(CPUScheduler.Process into) {
+                if (row == names.length) return false;
+                into.name = names[row];
+                into.arrivalTime = arrivals[row];
+                into.burstTime = lengths[row];
+                into.priority = priorities[row];
+                into.quantum = quanta[row];
+                row++;
+                return true;
+            }
+
+            @Override
+            public void rewind() { row = 0; }
+        };
+    }
+
+    private int burst(int i) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (cpu[i] + unit - 1) / unit));
+    }
+
+    // What the kernel did with each burst, in the same units
+    RunMetrics kernel() {
+        LatencyHistogram waiting = new LatencyHistogram(), turnaround = new LatencyHistogram();
+        long busy = 0;
+        for (int i = 0; i < bursts; i++) {
+            int b = burst(i);
+            int around = Math.max(b, units(done[i] - arrival[i] + unit / 2));
+            waiting.record(around - b);
+            turnaround.record(around);
+            busy += b;
+        }
+        return new RunMetrics(bursts, span(), busy, 0, 0, 0, 0, 0, 0, waiting, turnaround, new LatencyHistogram(),
+                0, 0, 0, new LatencyHistogram());
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static int run(String[] args) {
+        Path file = null, out = null;
+        long unit = 1_000;
+        Integer cpus = null, contextSwitch = null, rrQuantum = null, aging = null, quantum = null;
+        List<String> algorithms = List.of("auto");
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException(args[i] + " expects a value");
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--import": file = Paths.get(value); break;
+                    case "--unit":
+                        switch (value) {
+                            case "ns": unit = 1; break;
+                            case "us": unit = 1_000; break;
+                            case "ms": unit = 1_000_000; break;
+                            default: throw new IllegalArgumentException("--unit expects ns, us or ms");
+                        }
+                        break;
+                    case "--cpus": cpus = SweepRunner.parseRange(args[i], value, 1).get(0); break;
+                    case "--quantum": quantum = SweepRunner.parseRange(args[i], value, 1).get(0); break;
+                    case "--context-switch": contextSwitch = SweepRunner.parseRange(args[i], value, 0).get(0); break;
+                    case "--rr-quantum": rrQuantum = SweepRunner.parseRange(args[i], value, 1).get(0); break;
+                    case "--aging": aging = SweepRunner.parseRange(args[i], value, 0).get(0); break;
+                    case "--algorithms":
+                        algorithms = Arrays.asList(value.toLowerCase().split(","));
+                        for (String a : algorithms) {
+                            if (!a.equals("auto") && !BatchRunner.ALGORITHMS.contains(a)) throw new IllegalArgumentException("unknown algorithm '" + a + "'");
+                        }
+                        break;
+                    case "--out": out = Paths.get(value); break;
+                    default:
+                        throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+                }
+            }
+            if (file == null) throw new IllegalArgumentException("--import expects a trace file");
+            if (algorithms.contains("ag") && quantum == null) throw new IllegalArgumentException("AG needs --quantum");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --import <trace> [--unit ns|us|ms] [--cpus N] [--quantum Q] [--context-switch C] [--rr-quantum Q] [--aging A] [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--out <file>]");
+            return 2;
+        }
+        if (contextSwitch == null) contextSwitch = 0;
+        if (rrQuantum == null) rrQuantum = (int) Math.max(1, 4_000_000 / unit);
+        if (aging == null) aging = (int) Math.max(1, 10_000_000 / unit);
+        if (algorithms.contains("auto")) algorithms = quantum == null ? List.of("sjf", "rr", "priority") : List.of("sjf", "rr", "priority", "ag");
+
+        KernelTraceImporter importer = new KernelTraceImporter(unit);
+        ProcessTable table;
+        long start = System.nanoTime();
+        try {
+            importer.read(file);
+            if (importer.bursts() == 0) {
+                System.out.println("Error: " + file + ": no complete CPU bursts (are sched_switch and sched_wakeup recorded?)");
+                return 1;
+            }
+            table = importer.table(quantum == null ? 0 : quantum);
+        } catch (NoSuchFileException e) {
+            System.out.println("Error: cannot read " + file + ": no such file");
+            return 1;
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
+            return 1;
+        }
+        if (cpus == null) cpus = Math.max(1, importer.cpus());
+        System.out.printf("Imported %s in %.3f s: %d lines, %d scheduler events, %d bursts from %d tasks on %d CPUs over %d %s (%d partial bursts dropped)%n",
+                file.getFileName(), (System.nanoTime() - start) / 1e9, importer.lines, importer.events, importer.bursts(),
+                importer.tasks(), importer.cpus(), importer.span(), unit == 1 ? "ns" : unit == 1_000 ? "us" : "ms", importer.dropped);
+
+        if (out != null) {
+            try {
+                WorkloadGenerator.writeJson(importer.source(), "Imported from " + file.getFileName(), quantum != null,
+                        out, contextSwitch, rrQuantum, aging);
+            } catch (IOException e) {
+                System.out.println("Error: " + e.getMessage());
+                return 1;
+            }
+            System.out.println("Wrote " + out);
+            return 0;
+        }
+
+        System.out.println("Config: [CPUs: " + cpus + "] [CS: " + contextSwitch + "] [RR: " + rrQuantum + "] [Aging: " + aging
+                + "]" + (quantum == null ? "" : " [AG quantum: " + quantum + "]"));
+        String line = "+-----------+-------------+-------------+-------------+-------------+----------------+----------------+";
+        System.out.println(line);
+        System.out.printf("| %-9s | %-11s | %-11s | %-11s | %-11s | %-14s | %-14s |%n",
+                "Schedule", "Avg Waiting", "P50 Waiting", "P99 Waiting", "Max Waiting", "Avg Turnaround", "P99 Turnaround");
+        System.out.println(line);
+        print("Kernel", importer.kernel());
+        for (String a : algorithms) {
+            if (cpus == 1) {
+                CPUScheduler.simulate(a, table, contextSwitch, rrQuantum, aging);
+            } else {
+                new SmpSimulator(table, cpus, true, 0, contextSwitch, rrQuantum, aging).simulate(a);
+            }
+            print(BatchRunner.LABELS.get(a), table.metrics());
+        }
+        System.out.println(line);
+        return 0;
+    }
+
+    private static void print(String label, RunMetrics m) {
+        System.out.printf("| %-9s | %-11.2f | %-11d | %-11d | %-11d | %-14.2f | %-14d |%n",
+                label, m.waiting.mean(), m.waiting.percentile(50), m.waiting.percentile(99), m.waiting.max(),
+                m.turnaround.mean(), m.turnaround.percentile(99));
+    }
+}
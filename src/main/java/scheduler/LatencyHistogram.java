@@ -0,0 +1,90 @@
+package scheduler;
+
+import java.util.Arrays;
+
+// ==========================================
+// Latency Histogram
+// ==========================================
+// Log-linear buckets in the style of HdrHistogram: values below 2^SUB_BITS
+// are counted exactly, and every power of two above that is split into
+// 2^(SUB_BITS-1) equal buckets, so any percentile is within 1/2^(SUB_BITS-1)
+// (under 1%) of the true value. Recording is O(1) and the footprint is fixed
+// no matter how many values go in, which keeps streaming runs bounded.
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 8;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF = SUB_COUNT / 2;
+
+    private final long[] counts = new long[SUB_COUNT + (31 - SUB_BITS) * HALF];
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max;
+
+    public void record(int value) {
+        if (value < 0) value = 0;
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    // Adds every value recorded in `other`; as in clear(), only the buckets
+    // between its min and max can hold anything.
+    public void add(LatencyHistogram other) {
+        if (other.count == 0) return;
+        for (int i = index(other.min), last = index(other.max); i <= last; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // Only the buckets between min and max can be non-zero
+    public void clear() {
+        if (count > 0) Arrays.fill(counts, index(min), index(max) + 1, 0);
+        count = sum = 0;
+        min = Integer.MAX_VALUE;
+        max = 0;
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.add(this);
+        return h;
+    }
+
+    public long count() { return count; }
+    public int min() { return count == 0 ? 0 : min; }
+    public int max() { return max; }
+    public double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+    // Smallest recorded value (to bucket precision) that at least `percentile`% of values do not exceed.
+    public int percentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highestInBucket(i));
+        }
+        return max;
+    }
+
+    // Values below SUB_COUNT map to themselves; above that, bucket k covers
+    // [2^(SUB_BITS+k-1), 2^(SUB_BITS+k)) in HALF steps of 2^k.
+    private static int index(int value) {
+        if (value < SUB_COUNT) return value;
+        int shift = (31 - Integer.numberOfLeadingZeros(value)) - (SUB_BITS - 1);
+        return SUB_COUNT + (shift - 1) * HALF + ((value >>> shift) - HALF);
+    }
+
+    private static int highestInBucket(int i) {
+        if (i < SUB_COUNT) return i;
+        int shift = (i - SUB_COUNT) / HALF + 1;
+        long low = (long) (HALF + (i - SUB_COUNT) % HALF) << shift;
+        return (int) Math.min(Integer.MAX_VALUE, low + (1L << shift) - 1);
+    }
+}
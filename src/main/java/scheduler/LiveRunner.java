@@ -0,0 +1,315 @@
+package scheduler;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+// ==========================================
+// Live Execution
+// ==========================================
+// java -jar cpu-scheduler.jar --live <file> [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm]
+//                           [--workers platform|virtual] [--unit-us U]
+//
+// Runs the workload for real on one CPU's worth of work: every process
+// becomes a task on its own worker thread that burns burstTime work units of
+// U microseconds each (a spin loop, calibrated once at start-up). A dispatcher
+// steps the algorithm's Scheduler state machine from one event to the next and
+// carries out each decision on the threads: it grants the chosen task the
+// slice the algorithm gave it and waits for the work to be done, spins through
+// context switches itself and sleeps while the CPU would be idle. So at most
+// one worker is ever computing, and the order and length of every slice are
+// exactly the simulator's; preemption happens between slices, since a thread
+// cannot be stopped part way through one.
+//
+// Each process is released (its thread started) when the dispatcher's clock
+// reaches its arrival, and the measured turnaround runs from there to the end
+// of its last slice in real time, measured waiting being that turnaround less
+// the time its work took and its I/O. Both are reported in units next to the
+// simulated values, together with the dispatch overhead per decision: the
+// scheduler's step plus starting newly arrived threads (decide), the time from
+// granting a slice to the worker running (handoff) and from the worker
+// finishing to the dispatcher carrying on (return).
+//
+// --workers virtual needs a Java 21 or later runtime; threads are platform
+// threads by default.
+final class LiveRunner {
+
+    private static volatile long sink; // keeps the spin loops from being optimised away
+
+    private final ProcessTable t;
+    private final ThreadFactory threads;
+    private final long unitNs, iterationsPerUnit;
+
+    // Measured, per row, in nanoseconds
+    private final long[] released, serviced, finished;
+    private final LatencyHistogram overhead = new LatencyHistogram();
+    private long decideNs, handoffNs, returnNs, decisions, span;
+
+    private LiveRunner(ProcessTable t, ThreadFactory threads, long unitNs, long iterationsPerUnit) {
+        this.t = t;
+        this.threads = threads;
+        this.unitNs = unitNs;
+        this.iterationsPerUnit = iterationsPerUnit;
+        this.released = new long[t.size];
+        this.serviced = new long[t.size];
+        this.finished = new long[t.size];
+    }
+
+    // ==========================================
+    // Workers
+    // ==========================================
+
+    // One process: waits for a grant, runs that many units and reports back,
+    // until its whole CPU time has been run
+    private final class Worker implements Runnable {
+        private final Semaphore go = new Semaphore(0);
+        private final Semaphore done;
+        private int work; // units still to run
+        private int grant;
+        private long started, ended;
+
+        Worker(int row, Semaphore done) {
+            this.work = t.burst[row];
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            long x = work;
+            while (work > 0) {
+                go.acquireUninterruptibly();
+                started = System.nanoTime();
+                x = spin(x, grant * iterationsPerUnit);
+                ended = System.nanoTime();
+                work -= grant;
+                done.release();
+            }
+            sink = x;
+        }
+    }
+
+    // ==========================================
+    // Dispatcher
+    // ==========================================
+
+    // Runs the table's workload on the threads under `s`, a fresh state
+    // machine over it; afterwards the table holds the simulated results
+    private void drive(Scheduler s) {
+        Semaphore done = new Semaphore(0);
+        Worker[] workers = new Worker[t.size];
+        Integer[] byArrival = new Integer[t.size];
+        for (int r = 0; r < t.size; r++) byArrival[r] = r;
+        Arrays.sort(byArrival, Comparator.comparingInt(r -> t.arrival[r]));
+        int nextRelease = 0;
+
+        // Where the dispatcher's clock stood at the previous event, virtual and real
+        int clock = t.size == 0 ? 0 : t.arrival[byArrival[0]];
+        long start = System.nanoTime(), real = start;
+        while (true) {
+            long switchTime = s.contextSwitchTime;
+            long d0 = System.nanoTime();
+            if (!s.step()) break;
+            int now = s.now();
+
+            // Arrivals since the last event, placed on the real timeline
+            // between it and this one
+            while (nextRelease < t.size && t.arrival[byArrival[nextRelease]] <= now) {
+                int row = byArrival[nextRelease++];
+                released[row] = now == clock ? real : real + (t.arrival[row] - clock) * (d0 - real) / (now - clock);
+                workers[row] = new Worker(row, done);
+                threads.newThread(workers[row]).start();
+            }
+            clock = now;
+            real = d0;
+
+            int row = s.runningRow(), next = s.nextEventTime();
+            long d1 = System.nanoTime();
+            decisions++;
+            decideNs += d1 - d0;
+            if (row >= 0) {
+                Worker w = workers[row];
+                w.grant = next - now;
+                long granted = System.nanoTime();
+                w.go.release();
+                done.acquireUninterruptibly();
+                long back = System.nanoTime();
+                handoffNs += w.started - granted;
+                returnNs += back - w.ended;
+                serviced[row] += w.ended - w.started;
+                finished[row] = w.ended;
+                record(d1 - d0 + w.started - granted + back - w.ended);
+            } else {
+                record(d1 - d0);
+                if (next == Integer.MAX_VALUE) continue;
+                if (s.contextSwitchTime > switchTime) {
+                    // A switch costs CPU time in the model, so it burns it here
+                    sink = spin(now, (long) (next - now) * iterationsPerUnit);
+                } else {
+                    long until = System.nanoTime() + (long) (next - now) * unitNs;
+                    for (long left; (left = until - System.nanoTime()) > 0; ) LockSupport.parkNanos(left);
+                }
+            }
+        }
+        span = System.nanoTime() - start;
+    }
+
+    private void record(long ns) {
+        overhead.record((int) Math.min(Integer.MAX_VALUE, ns));
+    }
+
+    // ==========================================
+    // Report
+    // ==========================================
+    private void print(String label, String workerKind) {
+        System.out.println("\n========================================================");
+        System.out.println("           Live " + label + " (" + workerKind + " threads, 1 unit = " + unitNs / 1000 + " us)");
+        System.out.println("========================================================");
+        String line = "+------------+------------+------------+------------+------------+";
+        System.out.println(line);
+        System.out.printf("| %-10s | %-10s | %-10s | %-10s | %-10s |%n", "Process", "Sim Wait", "Live Wait", "Sim TA", "Live TA");
+        System.out.println(line);
+        double simWaiting = 0, liveWaiting = 0, simTurnaround = 0, liveTurnaround = 0, work = 0, workNs = 0;
+        for (int r : ResultWriter.rowsInInputOrder(t)) {
+            double turnaround = (double) (finished[r] - released[r]) / unitNs;
+            double waiting = turnaround - (double) serviced[r] / unitNs - ProcessTable.ioTime(t.bursts[r]);
+            System.out.printf("| %-10s | %-10d | %-10.2f | %-10d | %-10.2f |%n", t.name[r], t.waiting[r], waiting, t.turnaround[r], turnaround);
+            simWaiting += t.waiting[r];
+            liveWaiting += waiting;
+            simTurnaround += t.turnaround[r];
+            liveTurnaround += turnaround;
+            work += t.burst[r];
+            workNs += serviced[r];
+        }
+        System.out.println(line);
+
+        int n = Math.max(1, t.size);
+        System.out.printf("Average Waiting Time:    %.2f simulated, %.2f live%n", simWaiting / n, liveWaiting / n);
+        System.out.printf("Average Turnaround Time: %.2f simulated, %.2f live%n", simTurnaround / n, liveTurnaround / n);
+        System.out.printf("Work Unit:               %.1f us nominal, %.1f us measured%n", unitNs / 1000.0, work == 0 ? 0 : workNs / work / 1000);
+        System.out.printf("Span:                    %d units simulated, %.2f live%n", t.metrics().span, (double) span / unitNs);
+        System.out.printf("Dispatch Decisions:      %d%n", decisions);
+        System.out.printf("Overhead per Decision    %8s %8s %8s %8s (us)%n", "p50", "p90", "p99", "max");
+        System.out.printf("  %-22s %8.1f %8.1f %8.1f %8.1f%n", "Total", overhead.percentile(50) / 1000.0,
+                overhead.percentile(90) / 1000.0, overhead.percentile(99) / 1000.0, overhead.max() / 1000.0);
+        double d = Math.max(1, decisions) * 1000.0;
+        System.out.printf("  %-22s decide %.1f, handoff %.1f, return %.1f (mean)%n", "Breakdown", decideNs / d, handoffNs / d, returnNs / d);
+        System.out.printf("Overhead Share:          %.2f%% of %.1f ms%n",
+                span == 0 ? 0 : 100.0 * (decideNs + handoffNs + returnNs) / span, span / 1e6);
+    }
+
+    // ==========================================
+    // Work Units
+    // ==========================================
+
+    // `iterations` rounds of xorshift: pure CPU, nothing the JIT can fold away
+    private static long spin(long x, long iterations) {
+        x |= 1;
+        for (long i = 0; i < iterations; i++) {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+        return x;
+    }
+
+    // Spin iterations in one unit of `unitNs`: the fastest of a few timed
+    // rounds of at least 20 ms each, after the loop has been compiled
+    private static long calibrate(long unitNs) {
+        long iterations = 1 << 16;
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < 8; round++) {
+            long t0 = System.nanoTime();
+            sink = spin(round, iterations);
+            long elapsed = System.nanoTime() - t0;
+            if (elapsed < 20_000_000) {
+                iterations *= 2;
+                round--;
+                continue;
+            }
+            best = Math.min(best, (double) elapsed / iterations);
+        }
+        return Math.max(1, Math.round(unitNs / best));
+    }
+
+    // Thread.ofVirtual().factory(), looked up at run time so the simulator
+    // still builds and runs on Java 17; null where there are no virtual threads
+    private static ThreadFactory virtualThreads() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static int run(String[] args) {
+        Path file = null;
+        String algorithmSpec = "auto";
+        boolean virtual = false;
+        int unitUs = 1000;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException(args[i] + " expects a value");
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--live": file = Paths.get(value); break;
+                    case "--algorithms": algorithmSpec = value.toLowerCase(); break;
+                    case "--workers":
+                        if (!value.equals("platform") && !value.equals("virtual")) throw new IllegalArgumentException("--workers expects platform or virtual");
+                        virtual = value.equals("virtual");
+                        break;
+                    case "--unit-us": unitUs = SweepRunner.parseRange(args[i], value, 1).get(0); break;
+                    default:
+                        throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+                }
+            }
+            if (file == null) throw new IllegalArgumentException("--live expects a workload file");
+            if (!algorithmSpec.equals("auto")) {
+                for (String a : algorithmSpec.split(",")) {
+                    if (!BatchRunner.ALGORITHMS.contains(a)) throw new IllegalArgumentException("unknown algorithm '" + a + "'");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --live <file> [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--workers platform|virtual] [--unit-us U]");
+            return 2;
+        }
+
+        ThreadFactory threads = virtual ? virtualThreads() : Thread::new;
+        if (threads == null) {
+            System.out.println("Error: virtual threads need Java 21 or later (running " + System.getProperty("java.version") + ")");
+            return 1;
+        }
+        CPUScheduler.Workload w;
+        try {
+            w = WorkloadParser.parse(file);
+        } catch (java.io.IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            return 1;
+        }
+        if (w.processes.isEmpty()) {
+            System.out.println("Error: No processes found.");
+            return 1;
+        }
+
+        List<String> algorithms = algorithmSpec.equals("auto")
+                ? CPUScheduler.autoAlgorithms(file.getFileName().toString(), w) : Arrays.asList(algorithmSpec.split(","));
+        long unitNs = unitUs * 1000L;
+        long iterationsPerUnit = calibrate(unitNs);
+        System.out.println("Workload: " + file.getFileName() + " (" + w.processes.size() + " processes) [CS: " + w.contextSwitch
+                + "] [Workers: " + (virtual ? "virtual" : "platform") + "] [Unit: " + unitUs + " us = " + iterationsPerUnit + " spins]");
+
+        ProcessTable table = ProcessTable.of(w.processes);
+        for (String a : algorithms) {
+            table.reset();
+            LiveRunner live = new LiveRunner(table, threads, unitNs, iterationsPerUnit);
+            live.drive(CPUScheduler.scheduler(a, table, w.contextSwitch, w.rrQuantum, w.agingInterval, w.tuning()));
+            live.print(BatchRunner.LABELS.get(a), virtual ? "virtual" : "platform");
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,763 @@
+package scheduler;
+
+import java.util.*;
+
+// ==========================================
+// Process Table (struct-of-arrays)
+// ==========================================
+// The same data as a List<Process>, stored as one primitive column per field.
+// Rows are kept in arrival order (ties in input order). The schedulers run
+// directly against the columns and take arrivals through admit(), and
+// reset() restores the dynamic ones in O(n) without reallocating, so the
+// same table can be simulated again and again without allocating.
+//
+// A streaming table (streaming()) holds only the processes that have arrived
+// and not yet completed: each one is copied from a Source into a free row on
+// arrival and the row is recycled on completion, so memory follows the number
+// of live processes rather than the length of the workload. It keeps running
+// totals instead of per-process results, quantum history or a timeline.
+//
+// A process with I/O (CPUScheduler.Process.bursts) runs one CPU burst at a
+// time: when one ends, block() parks the row in a heap ordered by wake-up
+// time, and it comes back through admit() like an arrival once its I/O is
+// over, so every scheduler takes it back without knowing it left. remaining
+// is what is left of the current CPU burst, not of the whole process.
+class ProcessTable implements Scheduler.Lane {
+
+    int size; // rows; the capacity of a streaming table
+
+    // Input, never modified by a run
+    String[] name;
+    int[] arrival;
+    int[] burst;
+    int[] basePriority;
+    int[] quantum;
+    int[][] bursts;  // CPU and I/O bursts as in CPUScheduler.Process, null for a single burst
+    int[] deadline;  // absolute, NO_DEADLINE for none
+    int[] period;    // of the periodic task a job belongs to, 0 for a one-shot job
+
+    // Dynamic state, restored by reset()
+    int[] remaining;
+    int[] priority;
+    int[] agQuantum;
+    int[] executed;
+    int[] level;     // MLFQ queue, 0 the top
+    long[] vruntime; // CFS virtual runtime, in CPUScheduler.CFSScheduler's fixed point
+    int[] completion;
+    int[] waiting;
+    int[] turnaround;
+    int[] lastUpdate;
+    long[] readySeq;
+    long[] admitted; // admission order; breaks ties where rows are otherwise equal
+    int[] firstRun;  // time of the first dispatch, -1 until then
+    int[] phase;     // index in bursts of the current CPU burst
+    int[] wake;      // when the I/O a blocked row waits on is over
+
+    // Position of each row in the list the table was built from
+    private final int[] source;
+
+    // Arrivals and running totals
+    private int nextRow;
+    private int live, maxLive;
+    private long admittedCount, completedCount;
+    private long totalWaiting, totalTurnaround, totalIo;
+    private int lastCompletion;
+    private int firstArrival;
+
+    // Counters behind metrics(); the simulator records its ready queue's peak
+    // and, for AG, which rule preempted the running process
+    private long busyTime, switches, switchTime;
+    int peakReady;
+    long agPriorityPreemptions, agSjfPreemptions;
+    private final LatencyHistogram waitingTimes = new LatencyHistogram();
+    private final LatencyHistogram turnaroundTimes = new LatencyHistogram();
+    private final LatencyHistogram responseTimes = new LatencyHistogram();
+    private long deadlineJobs, deadlineMisses;
+    private int maxLateness;
+    private final LatencyHistogram tardiness = new LatencyHistogram(); // lateness, 0 when on time
+
+    // Streaming only: where processes come from and which rows are free
+    private final Source feed;
+    private final CPUScheduler.Process lookahead;
+    private boolean hasLookahead;
+    private int[] freeRows;
+    private int freeCount;
+
+    // Quantum changes are appended as (row, value) pairs; packHistory() groups
+    // them by row behind the initial quantum, using offsets into one int[].
+    private int[] historyRow = new int[16];
+    private int[] historyValue = new int[16];
+    private int historyLength;
+    private int[] historyStart;
+    private int[] historyPacked = new int[0];
+    private int[] historyCursor;
+    private boolean historyValid;
+
+    // Who held the CPU when, including context switches
+    final Timeline timeline = new Timeline();
+
+    // Where every event of the current run is recorded, if anywhere
+    Trace.Writer trace;
+
+    // Rows waiting on I/O, by wake-up time; allocated on the first block()
+    private Heap blocked;
+
+    // Scratch queues shared by the schedulers, allocated on first use
+    private Heap heapA, heapB;
+    private Fifo fifo;
+    private Fifo[] fifos;
+
+    // Processes in arrival order, for a streaming table
+    interface Source {
+        // Fills `into` with the next process; false once there are no more.
+        boolean next(CPUScheduler.Process into);
+
+        // Starts over from the first process, so the table can be run again.
+        void rewind();
+    }
+
+    static final int NO_DEADLINE = Integer.MAX_VALUE;
+
+    ProcessTable(int size) {
+        this(size, new String[size], new int[size], new int[size], new int[size], new int[size], new int[size][],
+                new int[size], new int[size], new int[size], null);
+    }
+
+    private ProcessTable(int size, String[] name, int[] arrival, int[] burst, int[] basePriority, int[] quantum, int[][] bursts,
+                         int[] deadline, int[] period, int[] source, Source feed) {
+        this.size = size;
+        this.name = name;
+        this.arrival = arrival;
+        this.burst = burst;
+        this.basePriority = basePriority;
+        this.quantum = quantum;
+        this.bursts = bursts;
+        this.deadline = deadline;
+        this.period = period;
+        this.source = source;
+        remaining = new int[size];
+        priority = new int[size];
+        agQuantum = new int[size];
+        executed = new int[size];
+        level = new int[size];
+        vruntime = new long[size];
+        completion = new int[size];
+        waiting = new int[size];
+        turnaround = new int[size];
+        lastUpdate = new int[size];
+        readySeq = new long[size];
+        admitted = new long[size];
+        firstRun = new int[size];
+        phase = new int[size];
+        wake = new int[size];
+        historyStart = new int[size + 1];
+        this.feed = feed;
+        if (feed != null) {
+            lookahead = new CPUScheduler.Process("", 0, 0, 0, 0);
+            freeRows = new int[size];
+            timeline.setRecording(false);
+        } else {
+            lookahead = null;
+        }
+        reset();
+    }
+
+    public static ProcessTable streaming(Source feed) {
+        int n = 1024;
+        return new ProcessTable(n, new String[n], new int[n], new int[n], new int[n], new int[n], new int[n][],
+                new int[n], new int[n], null, feed);
+    }
+
+    // A second table over the same (read-only) input columns with its own
+    // dynamic state, so several threads can simulate one workload at once.
+    public ProcessTable share() {
+        return new ProcessTable(size, name, arrival, burst, basePriority, quantum, bursts, deadline, period, source, null);
+    }
+
+    // Like share(), but with every AG quantum scaled to `percent`% (at least 1).
+    public ProcessTable withQuantumScaled(int percent) {
+        int[] scaled = new int[size];
+        for (int r = 0; r < size; r++) scaled[r] = Math.max(1, (int) ((long) quantum[r] * percent / 100));
+        return new ProcessTable(size, name, arrival, burst, basePriority, scaled, bursts, deadline, period, source, null);
+    }
+
+    public static ProcessTable of(List<CPUScheduler.Process> processes) {
+        int n = processes.size();
+        Integer[] byArrival = new Integer[n];
+        for (int i = 0; i < n; i++) byArrival[i] = i;
+        Arrays.sort(byArrival, Comparator.comparingInt(i -> processes.get(i).arrivalTime));
+
+        ProcessTable t = new ProcessTable(n);
+        for (int row = 0; row < n; row++) {
+            CPUScheduler.Process p = processes.get(byArrival[row]);
+            t.source[row] = byArrival[row];
+            t.name[row] = p.name;
+            t.arrival[row] = p.arrivalTime;
+            t.burst[row] = p.burstTime;
+            t.basePriority[row] = p.priority;
+            t.quantum[row] = p.quantum;
+            t.bursts[row] = p.bursts;
+            t.deadline[row] = absoluteDeadline(p);
+            t.period[row] = p.period;
+        }
+        t.reset();
+        return t;
+    }
+
+    // A table over input columns already in arrival order (ties in the order
+    // given), as KernelTraceImporter builds them; the arrays are taken over.
+    static ProcessTable of(String[] name, int[] arrival, int[] burst, int[] priority, int[] quantum) {
+        int[] source = new int[name.length];
+        for (int row = 0; row < source.length; row++) source[row] = row;
+        int n = name.length;
+        int[] deadline = new int[n];
+        Arrays.fill(deadline, NO_DEADLINE);
+        return new ProcessTable(n, name, arrival, burst, priority, quantum, new int[n][], deadline, new int[n], source, null);
+    }
+
+    static int absoluteDeadline(CPUScheduler.Process p) {
+        return p.deadline > 0 ? (int) Math.min(NO_DEADLINE - 1L, (long) p.arrivalTime + p.deadline) : NO_DEADLINE;
+    }
+
+    // Restores every dynamic column to its pre-run value.
+    public void reset() {
+        for (int r = 0; r < size; r++) init(r);
+        nextRow = 0;
+        live = maxLive = 0;
+        admittedCount = completedCount = 0;
+        totalWaiting = totalTurnaround = totalIo = 0;
+        lastCompletion = 0;
+        firstArrival = 0;
+        busyTime = switches = switchTime = 0;
+        peakReady = 0;
+        if (blocked != null) blocked.clear(BLOCKED_ORDER);
+        agPriorityPreemptions = agSjfPreemptions = 0;
+        waitingTimes.clear();
+        turnaroundTimes.clear();
+        responseTimes.clear();
+        deadlineJobs = deadlineMisses = 0;
+        maxLateness = 0;
+        tardiness.clear();
+        if (feed != null) {
+            feed.rewind();
+            hasLookahead = false;
+            lookahead.arrivalTime = 0;
+            freeCount = 0;
+            for (int r = size - 1; r >= 0; r--) freeRows[freeCount++] = r;
+        }
+        historyLength = 0;
+        historyValid = false;
+        timeline.clear();
+    }
+
+    private void init(int r) {
+        remaining[r] = bursts[r] == null ? burst[r] : bursts[r][0];
+        priority[r] = basePriority[r];
+        agQuantum[r] = quantum[r];
+        executed[r] = 0;
+        level[r] = 0;
+        vruntime[r] = 0;
+        completion[r] = 0;
+        waiting[r] = 0;
+        turnaround[r] = 0;
+        lastUpdate[r] = 0;
+        readySeq[r] = 0;
+        admitted[r] = 0;
+        firstRun[r] = -1;
+        phase[r] = 0;
+        wake[r] = 0;
+    }
+
+    // ---- Arrivals ----
+
+    // Whether any process has yet to arrive or to come back from I/O
+    public boolean hasArrivals() {
+        return (blocked != null && !blocked.isEmpty()) || hasNewArrivals();
+    }
+
+    private boolean hasNewArrivals() {
+        if (feed == null) return nextRow < size;
+        if (!hasLookahead) {
+            int previous = lookahead.arrivalTime;
+            hasLookahead = feed.next(lookahead);
+            if (hasLookahead && lookahead.arrivalTime < previous) {
+                throw new IllegalStateException("process " + lookahead.name + " arrives before its predecessor");
+            }
+        }
+        return hasLookahead;
+    }
+
+    // Arrival (or wake-up) time of the next process, Integer.MAX_VALUE when there is none
+    public int nextArrivalTime() {
+        int next = nextNewArrivalTime();
+        return blocked == null || blocked.isEmpty() ? next : Math.min(next, wake[blocked.peek()]);
+    }
+
+    private int nextNewArrivalTime() {
+        if (!hasNewArrivals()) return Integer.MAX_VALUE;
+        return feed == null ? arrival[nextRow] : lookahead.arrivalTime;
+    }
+
+    public boolean arrivedBy(int time) {
+        return nextArrivalTime() <= time;
+    }
+
+    // Takes the next arrival and returns its row. A process whose I/O ends at
+    // the same instant comes back after the arrival.
+    public int admit() {
+        if (blocked != null && !blocked.isEmpty() && wake[blocked.peek()] < nextNewArrivalTime()) {
+            int row = blocked.poll();
+            if (trace != null) trace.wake(row, wake[row]);
+            return row;
+        }
+        int row;
+        if (feed == null) {
+            row = nextRow++;
+        } else {
+            if (freeCount == 0) grow();
+            row = freeRows[--freeCount];
+            name[row] = lookahead.name;
+            arrival[row] = lookahead.arrivalTime;
+            burst[row] = lookahead.burstTime;
+            basePriority[row] = lookahead.priority;
+            quantum[row] = lookahead.quantum;
+            bursts[row] = lookahead.bursts;
+            deadline[row] = absoluteDeadline(lookahead);
+            period[row] = lookahead.period;
+            init(row);
+            hasLookahead = false;
+        }
+        if (admittedCount == 0) firstArrival = arrival[row];
+        admitted[row] = admittedCount++;
+        if (++live > maxLive) maxLive = live;
+        if (trace != null) trace.arrive(this, row);
+        return row;
+    }
+
+    // True once every process has arrived and completed
+    public boolean finished() {
+        return live == 0 && !hasArrivals();
+    }
+
+    // Ends the current CPU burst of `row` at `time`: it blocks on the I/O
+    // that follows until its wake-up time, unless that was its last burst.
+    // False if there was no I/O left to block on.
+    boolean block(int row, int time) {
+        int[] b = bursts[row];
+        if (b == null || phase[row] + 1 >= b.length) return false;
+        if (blocked == null) {
+            blocked = new Heap(this);
+            blocked.clear(BLOCKED_ORDER);
+        }
+        wake[row] = time + b[phase[row] + 1];
+        phase[row] += 2;
+        remaining[row] = b[phase[row]];
+        blocked.add(row);
+        return true;
+    }
+
+    // Time between the CPU bursts of `bursts`, 0 for null
+    static int ioTime(int[] bursts) {
+        int io = 0;
+        if (bursts != null) {
+            for (int i = 1; i < bursts.length; i += 2) io += bursts[i];
+        }
+        return io;
+    }
+
+    void complete(int row, int time) {
+        int io = ioTime(bursts[row]);
+        completion[row] = time;
+        turnaround[row] = time - arrival[row];
+        waiting[row] = turnaround[row] - burst[row] - io;
+        completedCount++;
+        totalIo += io;
+        totalWaiting += waiting[row];
+        totalTurnaround += turnaround[row];
+        lastCompletion = Math.max(lastCompletion, time);
+        waitingTimes.record(waiting[row]);
+        turnaroundTimes.record(turnaround[row]);
+        responseTimes.record(firstRun[row] - arrival[row]);
+        if (deadline[row] != NO_DEADLINE) {
+            int lateness = time - deadline[row];
+            if (deadlineJobs++ == 0 || lateness > maxLateness) maxLateness = lateness;
+            if (lateness > 0) deadlineMisses++;
+            tardiness.record(lateness);
+        }
+        live--;
+        if (feed != null) freeRows[freeCount++] = row;
+    }
+
+    // Puts `row` on the CPU over [from, to).
+    void run(int row, int from, int to) {
+        if (to <= from) return;
+        if (firstRun[row] < 0) firstRun[row] = from;
+        busyTime += to - from;
+        timeline.run(row, from, to);
+    }
+
+    void contextSwitch(int from, int to) {
+        if (to <= from) return;
+        switches++;
+        switchTime += to - from;
+        timeline.contextSwitch(from, to);
+    }
+
+    // Doubles the capacity of a streaming table.
+    private void grow() {
+        int n = size * 2;
+        name = Arrays.copyOf(name, n);
+        arrival = Arrays.copyOf(arrival, n);
+        burst = Arrays.copyOf(burst, n);
+        basePriority = Arrays.copyOf(basePriority, n);
+        quantum = Arrays.copyOf(quantum, n);
+        bursts = Arrays.copyOf(bursts, n);
+        deadline = Arrays.copyOf(deadline, n);
+        period = Arrays.copyOf(period, n);
+        remaining = Arrays.copyOf(remaining, n);
+        priority = Arrays.copyOf(priority, n);
+        agQuantum = Arrays.copyOf(agQuantum, n);
+        executed = Arrays.copyOf(executed, n);
+        level = Arrays.copyOf(level, n);
+        vruntime = Arrays.copyOf(vruntime, n);
+        completion = Arrays.copyOf(completion, n);
+        waiting = Arrays.copyOf(waiting, n);
+        turnaround = Arrays.copyOf(turnaround, n);
+        lastUpdate = Arrays.copyOf(lastUpdate, n);
+        readySeq = Arrays.copyOf(readySeq, n);
+        admitted = Arrays.copyOf(admitted, n);
+        firstRun = Arrays.copyOf(firstRun, n);
+        phase = Arrays.copyOf(phase, n);
+        wake = Arrays.copyOf(wake, n);
+        freeRows = Arrays.copyOf(freeRows, n);
+        for (int r = n - 1; r >= size; r--) freeRows[freeCount++] = r;
+        if (heapA != null) heapA.grow(n);
+        if (heapB != null) heapB.grow(n);
+        if (blocked != null) blocked.grow(n);
+        if (fifo != null) fifo.grow(n);
+        if (fifos != null) Fifo.grow(fifos, n);
+        size = n;
+    }
+
+    void recordQuantum(int row, int value) {
+        if (feed != null) return;
+        if (historyLength == historyRow.length) {
+            historyRow = Arrays.copyOf(historyRow, historyLength * 2);
+            historyValue = Arrays.copyOf(historyValue, historyLength * 2);
+        }
+        historyRow[historyLength] = row;
+        historyValue[historyLength++] = value;
+        historyValid = false;
+    }
+
+    // ---- Results ----
+
+    public List<String> executionOrder() {
+        return timeline.executionOrder(name);
+    }
+
+    public int historyLength(int row) {
+        packHistory();
+        return historyStart[row + 1] - historyStart[row];
+    }
+
+    public int history(int row, int i) {
+        packHistory();
+        return historyPacked[historyStart[row] + i];
+    }
+
+    // Whether any process has a deadline
+    boolean hasDeadlines() {
+        for (int r = 0; r < size; r++) {
+            if (deadline[r] != NO_DEADLINE) return true;
+        }
+        return false;
+    }
+
+    // Whether any process has I/O between its CPU bursts
+    boolean hasIo() {
+        for (int r = 0; r < size; r++) {
+            if (bursts[r] != null) return true;
+        }
+        return false;
+    }
+
+    // Position of `row` in the list the table was built from
+    int sourceIndex(int row) { return source[row]; }
+
+    public long completedCount() { return completedCount; }
+    public int maxLive() { return maxLive; }
+    public int lastCompletion() { return lastCompletion; }
+
+    // What metrics() reports, without its copies, for merging many runs
+    long busyTime() { return busyTime; }
+    long switchTime() { return switchTime; }
+    long ioTime() { return totalIo; }
+    int span() { return lastCompletion - firstArrival; }
+    LatencyHistogram waitingTimes() { return waitingTimes; }
+    LatencyHistogram turnaroundTimes() { return turnaroundTimes; }
+    LatencyHistogram responseTimes() { return responseTimes; }
+
+    public double averageWaiting() {
+        return (double) totalWaiting / completedCount;
+    }
+
+    public double averageTurnaround() {
+        return (double) totalTurnaround / completedCount;
+    }
+
+    // Snapshot of the last run's metrics; unaffected by later runs.
+    public RunMetrics metrics() {
+        return new RunMetrics(completedCount, lastCompletion - firstArrival, busyTime, switches, switchTime, totalIo,
+                peakReady, agPriorityPreemptions, agSjfPreemptions,
+                waitingTimes.copy(), turnaroundTimes.copy(), responseTimes.copy(),
+                deadlineJobs, deadlineMisses, maxLateness, tardiness.copy());
+    }
+
+    // Writes the outcome of the last run back into the list the table was built from.
+    public void copyResultsTo(List<CPUScheduler.Process> processes) {
+        for (int r = 0; r < size; r++) {
+            CPUScheduler.Process p = processes.get(source[r]);
+            p.remainingTime = remaining[r];
+            p.priority = priority[r];
+            p.agQuantum = agQuantum[r];
+            p.executedInCurrentCycle = executed[r];
+            p.completionTime = completion[r];
+            p.waitingTime = waiting[r];
+            p.turnaroundTime = turnaround[r];
+            p.lastUpdate = lastUpdate[r];
+            p.quantumHistory.clear();
+            for (int i = 0, n = historyLength(r); i < n; i++) p.quantumHistory.add(history(r, i));
+        }
+    }
+
+    // Counting sort of the change log by row, each row led by its initial quantum.
+    private void packHistory() {
+        if (historyValid) return;
+        if (historyCursor == null) historyCursor = new int[size];
+        Arrays.fill(historyStart, 0);
+        for (int i = 0; i < historyLength; i++) historyStart[historyRow[i] + 1]++;
+        for (int r = 0; r < size; r++) historyStart[r + 1] += historyStart[r] + 1;
+        if (historyPacked.length < size + historyLength) historyPacked = new int[size + historyLength];
+
+        for (int r = 0; r < size; r++) {
+            historyPacked[historyStart[r]] = quantum[r];
+            historyCursor[r] = historyStart[r] + 1;
+        }
+        for (int i = 0; i < historyLength; i++) historyPacked[historyCursor[historyRow[i]]++] = historyValue[i];
+        historyValid = true;
+    }
+
+    // Blocked rows by wake-up time, then admission order
+    static final Heap.Order BLOCKED_ORDER = (t, a, b) ->
+        t.wake[a] != t.wake[b] ? t.wake[a] < t.wake[b] : t.admitted[a] < t.admitted[b];
+
+    // ---- Scratch queues ----
+
+    public Heap heapA(Heap.Order order) {
+        if (heapA == null) heapA = new Heap(this);
+        heapA.clear(order);
+        return heapA;
+    }
+
+    public Heap heapB(Heap.Order order) {
+        if (heapB == null) heapB = new Heap(this);
+        heapB.clear(order);
+        return heapB;
+    }
+
+    public Fifo fifo() {
+        if (fifo == null) fifo = new Fifo(size);
+        fifo.clear();
+        return fifo;
+    }
+
+    public Fifo[] fifos(int count) {
+        if (fifos == null || fifos.length != count) fifos = Fifo.shared(count, size);
+        for (Fifo f : fifos) f.clear();
+        return fifos;
+    }
+
+    // Indexed binary min-heap of rows: O(log n) add, poll, remove and re-key.
+    static final class Heap {
+        interface Order {
+            boolean before(ProcessTable t, int a, int b);
+        }
+
+        private final ProcessTable t;
+        private int[] heap;
+        private int[] pos; // index of each row in heap, -1 when absent
+        private int size;
+        private int peak; // largest size since clear()
+        private Order order;
+
+        Heap(ProcessTable t) {
+            this.t = t;
+            heap = new int[t.size];
+            pos = new int[t.size];
+            Arrays.fill(pos, -1);
+        }
+
+        // A heap that grows as it fills and shares its position index with
+        // other heaps, which is safe as long as a row sits in at most one of
+        // them: one per core for an SMP run, without a full-size index each.
+        Heap(ProcessTable t, int[] sharedPos, Order order) {
+            this.t = t;
+            heap = new int[16];
+            pos = sharedPos;
+            this.order = order;
+        }
+
+        void clear(Order order) {
+            for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+            size = 0;
+            peak = 0;
+            this.order = order;
+        }
+
+        void grow(int capacity) {
+            int old = pos.length;
+            heap = Arrays.copyOf(heap, capacity);
+            pos = Arrays.copyOf(pos, capacity);
+            Arrays.fill(pos, old, capacity, -1);
+        }
+
+        boolean isEmpty() { return size == 0; }
+        int size() { return size; }
+        int peakSize() { return peak; }
+        boolean contains(int row) { return pos[row] >= 0; }
+        int peek() { return size == 0 ? -1 : heap[0]; }
+        int at(int i) { return heap[i]; }
+
+        void add(int row) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, 2 * size);
+            heap[size] = row;
+            pos[row] = size;
+            siftUp(size++);
+            if (size > peak) peak = size;
+        }
+
+        int poll() {
+            if (size == 0) return -1;
+            int top = heap[0];
+            remove(top);
+            return top;
+        }
+
+        void remove(int row) {
+            int i = pos[row];
+            pos[row] = -1;
+            int last = heap[--size];
+            if (i == size) return;
+            heap[i] = last;
+            pos[last] = i;
+            update(last);
+        }
+
+        // Restores heap order after the key of `row` changed in the table.
+        void update(int row) {
+            int i = pos[row];
+            if (i > 0 && order.before(t, row, heap[(i - 1) / 2])) siftUp(i);
+            else siftDown(i);
+        }
+
+        private void siftUp(int i) {
+            int row = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!order.before(t, row, heap[parent])) break;
+                heap[i] = heap[parent];
+                pos[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = row;
+            pos[row] = i;
+        }
+
+        private void siftDown(int i) {
+            int row = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && order.before(t, heap[child + 1], heap[child])) child++;
+                if (!order.before(t, heap[child], row)) break;
+                heap[i] = heap[child];
+                pos[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = row;
+            pos[row] = i;
+        }
+    }
+
+    // Intrusive doubly-linked FIFO of rows: O(1) add, poll and remove.
+    static final class Fifo {
+        private int[] next;
+        private int[] prev;
+        private int head = -1, tail = -1, size, peak;
+
+        Fifo(int capacity) {
+            this(new int[capacity], new int[capacity]);
+        }
+
+        // Links shared with other queues that never hold the same row at once
+        Fifo(int[] sharedNext, int[] sharedPrev) {
+            next = sharedNext;
+            prev = sharedPrev;
+        }
+
+        // `count` queues over one set of links, e.g. the levels of a multilevel queue
+        static Fifo[] shared(int count, int capacity) {
+            int[] next = new int[capacity], prev = new int[capacity];
+            Fifo[] fifos = new Fifo[count];
+            for (int i = 0; i < count; i++) fifos[i] = new Fifo(next, prev);
+            return fifos;
+        }
+
+        // Grows queues made by shared(), keeping their links shared
+        static void grow(Fifo[] shared, int capacity) {
+            int[] next = Arrays.copyOf(shared[0].next, capacity), prev = Arrays.copyOf(shared[0].prev, capacity);
+            for (Fifo f : shared) {
+                f.next = next;
+                f.prev = prev;
+            }
+        }
+
+        void clear() {
+            head = tail = -1;
+            size = peak = 0;
+        }
+
+        void grow(int capacity) {
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+        }
+
+        boolean isEmpty() { return size == 0; }
+        int size() { return size; }
+        int peakSize() { return peak; }
+        int peek() { return head; }
+        int last() { return tail; }
+        int next(int row) { return next[row]; }
+
+        void add(int row) {
+            prev[row] = tail;
+            next[row] = -1;
+            if (tail >= 0) next[tail] = row; else head = row;
+            tail = row;
+            if (++size > peak) peak = size;
+        }
+
+        int poll() {
+            int row = head;
+            if (row >= 0) remove(row);
+            return row;
+        }
+
+        void remove(int row) {
+            if (prev[row] >= 0) next[prev[row]] = next[row]; else head = next[row];
+            if (next[row] >= 0) prev[next[row]] = prev[row]; else tail = prev[row];
+            size--;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package scheduler;
+
+import java.io.*;
+
+// ==========================================
+// Machine-Readable Results (JSON / CSV)
+// ==========================================
+// Writes the outcome of one run straight from a ProcessTable in a single pass,
+// processes in input order. JSON follows the "expectedOutput" blocks of the
+// workload files (executionOrder, processResults with quantumHistory for AG,
+// the two averages rounded to 2 places) plus a "metrics" object; CSV has one
+// row per process. Workloads with I/O bursts also get each process's ioTime,
+// and those with deadlines each job's deadline and lateness plus the miss
+// count. Rows are assembled in a reused StringBuilder and handed to the
+// (buffered) writer as they are produced, so nothing per row is formatted
+// through printf and nothing is held back until the end.
+final class ResultWriter {
+
+    private ResultWriter() {}
+
+    static void writeJson(ProcessTable t, String algorithm, boolean quantumHistory, Writer out) throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\n  \"algorithm\": ");
+        quote(sb, algorithm);
+        sb.append(",\n  \"executionOrder\": [");
+        boolean first = true;
+        int last = Timeline.CONTEXT_SWITCH;
+        for (int i = 0; i < t.timeline.size(); i++) {
+            int row = t.timeline.row(i);
+            if (row == Timeline.CONTEXT_SWITCH || row == last) continue;
+            if (!first) sb.append(", ");
+            first = false;
+            quote(sb, t.name[row]);
+            last = row;
+            if (sb.length() > 8192) flush(sb, out);
+        }
+        sb.append("],\n  \"processResults\": [\n");
+
+        int[] rows = rowsInInputOrder(t);
+        for (int i = 0; i < rows.length; i++) {
+            int r = rows[i];
+            sb.append("    {\"name\": ");
+            quote(sb, t.name[r]);
+            sb.append(", \"waitingTime\": ").append(t.waiting[r])
+              .append(", \"turnaroundTime\": ").append(t.turnaround[r]);
+            if (t.bursts[r] != null) sb.append(", \"ioTime\": ").append(ProcessTable.ioTime(t.bursts[r]));
+            if (t.deadline[r] != ProcessTable.NO_DEADLINE) {
+                sb.append(", \"deadline\": ").append(t.deadline[r])
+                  .append(", \"lateness\": ").append(t.completion[r] - t.deadline[r]);
+            }
+            if (quantumHistory) {
+                sb.append(", \"quantumHistory\": [");
+                for (int h = 0, n = t.historyLength(r); h < n; h++) {
+                    if (h > 0) sb.append(',');
+                    sb.append(t.history(r, h));
+                }
+                sb.append(']');
+            }
+            sb.append(i + 1 < rows.length ? "},\n" : "}\n");
+            if (sb.length() > 8192) flush(sb, out);
+        }
+        sb.append("  ],\n");
+        sb.append("  \"averageWaitingTime\": ").append(round2(t.averageWaiting())).append(",\n");
+        sb.append("  \"averageTurnaroundTime\": ").append(round2(t.averageTurnaround())).append(",\n");
+
+        RunMetrics m = t.metrics();
+        sb.append("  \"metrics\": {\n");
+        latency(sb, "waitingTime", m.waiting);
+        latency(sb, "turnaroundTime", m.turnaround);
+        latency(sb, "responseTime", m.response);
+        sb.append("    \"span\": ").append(m.span).append(",\n");
+        sb.append("    \"busyTime\": ").append(m.busyTime).append(",\n");
+        sb.append("    \"cpuUtilisation\": ").append(round4(m.utilisation())).append(",\n");
+        sb.append("    \"throughput\": ").append(round4(m.throughput())).append(",\n");
+        sb.append("    \"contextSwitches\": ").append(m.contextSwitches).append(",\n");
+        sb.append("    \"contextSwitchTime\": ").append(m.contextSwitchTime).append(",\n");
+        if (m.ioTime > 0) sb.append("    \"ioTime\": ").append(m.ioTime).append(",\n");
+        if (m.deadlineJobs > 0) {
+            sb.append("    \"deadlineJobs\": ").append(m.deadlineJobs).append(",\n");
+            sb.append("    \"deadlineMisses\": ").append(m.deadlineMisses).append(",\n");
+            sb.append("    \"maxLateness\": ").append(m.maxLateness).append(",\n");
+            latency(sb, "tardiness", m.tardiness);
+        }
+        sb.append("    \"maxReadyQueue\": ").append(m.maxReadyQueue);
+        if (quantumHistory) {
+            sb.append(",\n    \"agPriorityPreemptions\": ").append(m.agPriorityPreemptions)
+              .append(",\n    \"agSjfPreemptions\": ").append(m.agSjfPreemptions);
+        }
+        sb.append("\n  }\n}\n");
+        flush(sb, out);
+    }
+
+    static void writeCsv(ProcessTable t, String algorithm, boolean quantumHistory, Writer out) throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        boolean io = t.hasIo(), deadlines = t.hasDeadlines();
+        sb.append("algorithm,name,arrival,burst,priority,completionTime,waitingTime,turnaroundTime,responseTime");
+        if (io) sb.append(",ioTime");
+        if (deadlines) sb.append(",deadline,lateness");
+        if (quantumHistory) sb.append(",quantumHistory");
+        sb.append('\n');
+        for (int r : rowsInInputOrder(t)) {
+            sb.append(algorithm).append(',');
+            csvField(sb, t.name[r]);
+            sb.append(',').append(t.arrival[r])
+              .append(',').append(t.burst[r])
+              .append(',').append(t.basePriority[r])
+              .append(',').append(t.completion[r])
+              .append(',').append(t.waiting[r])
+              .append(',').append(t.turnaround[r])
+              .append(',').append(t.firstRun[r] - t.arrival[r]);
+            if (io) sb.append(',').append(ProcessTable.ioTime(t.bursts[r]));
+            if (deadlines) {
+                // Blank for jobs without a deadline
+                sb.append(',');
+                if (t.deadline[r] != ProcessTable.NO_DEADLINE) {
+                    sb.append(t.deadline[r]).append(',').append(t.completion[r] - t.deadline[r]);
+                } else {
+                    sb.append(',');
+                }
+            }
+            if (quantumHistory) {
+                sb.append(',');
+                for (int h = 0, n = t.historyLength(r); h < n; h++) {
+                    if (h > 0) sb.append(' ');
+                    sb.append(t.history(r, h));
+                }
+            }
+            sb.append('\n');
+            if (sb.length() > 8192) flush(sb, out);
+        }
+        flush(sb, out);
+    }
+
+    // ---- Helpers ----
+
+    static int[] rowsInInputOrder(ProcessTable t) {
+        int[] rows = new int[t.size];
+        for (int r = 0; r < t.size; r++) rows[t.sourceIndex(r)] = r;
+        return rows;
+    }
+
+    private static void latency(StringBuilder sb, String key, LatencyHistogram h) {
+        sb.append("    \"").append(key).append("\": {\"p50\": ").append(h.percentile(50))
+          .append(", \"p90\": ").append(h.percentile(90))
+          .append(", \"p99\": ").append(h.percentile(99))
+          .append(", \"max\": ").append(h.max()).append("},\n");
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+
+    private static double round4(double v) {
+        return Math.round(v * 10000) / 10000.0;
+    }
+
+    static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    private static void csvField(StringBuilder sb, String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) {
+            sb.append(s);
+            return;
+        }
+        sb.append('"').append(s.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void flush(StringBuilder sb, Writer out) throws IOException {
+        out.append(sb);
+        sb.setLength(0);
+    }
+}
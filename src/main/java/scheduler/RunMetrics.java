@@ -0,0 +1,69 @@
+package scheduler;
+
+// ==========================================
+// Run Metrics
+// ==========================================
+// What one simulation measured, as plain values for programmatic callers.
+// The span runs from the first arrival to the last completion; busy time is
+// CPU time spent on processes, so context switches and idle gaps both count
+// against utilisation. Response time is the wait until the first dispatch;
+// I/O time is how long the completed processes spent blocked between CPU
+// bursts, which is not counted as waiting. Lateness is completion minus
+// deadline, over the processes that have one; tardiness is lateness, but 0
+// for those that made it.
+public final class RunMetrics {
+
+    public final long processes;
+    public final int span;
+    public final long busyTime;
+    public final long contextSwitches;
+    public final long contextSwitchTime;
+    public final long ioTime;
+    public final int maxReadyQueue;
+    public final long agPriorityPreemptions; // AG only, 0 otherwise
+    public final long agSjfPreemptions;      // AG only, 0 otherwise
+    public final LatencyHistogram waiting;
+    public final LatencyHistogram turnaround;
+    public final LatencyHistogram response;
+    public final long deadlineJobs;
+    public final long deadlineMisses;
+    public final int maxLateness;            // negative when every deadline was met with time to spare
+    public final LatencyHistogram tardiness;
+
+    RunMetrics(long processes, int span, long busyTime, long contextSwitches, long contextSwitchTime, long ioTime,
+               int maxReadyQueue, long agPriorityPreemptions, long agSjfPreemptions,
+               LatencyHistogram waiting, LatencyHistogram turnaround, LatencyHistogram response,
+               long deadlineJobs, long deadlineMisses, int maxLateness, LatencyHistogram tardiness) {
+        this.processes = processes;
+        this.span = span;
+        this.busyTime = busyTime;
+        this.contextSwitches = contextSwitches;
+        this.contextSwitchTime = contextSwitchTime;
+        this.ioTime = ioTime;
+        this.maxReadyQueue = maxReadyQueue;
+        this.agPriorityPreemptions = agPriorityPreemptions;
+        this.agSjfPreemptions = agSjfPreemptions;
+        this.waiting = waiting;
+        this.turnaround = turnaround;
+        this.response = response;
+        this.deadlineJobs = deadlineJobs;
+        this.deadlineMisses = deadlineMisses;
+        this.maxLateness = maxLateness;
+        this.tardiness = tardiness;
+    }
+
+    // Fraction of the span the CPU spent running processes
+    public double utilisation() {
+        return span == 0 ? 0 : (double) busyTime / span;
+    }
+
+    // Fraction of the processes with a deadline that missed it
+    public double missRate() {
+        return deadlineJobs == 0 ? 0 : (double) deadlineMisses / deadlineJobs;
+    }
+
+    // Completed processes per time unit
+    public double throughput() {
+        return span == 0 ? 0 : (double) processes / span;
+    }
+}
@@ -0,0 +1,299 @@
+package scheduler;
+
+import java.io.PrintStream;
+import java.nio.file.*;
+import java.util.*;
+
+// ==========================================
+// Real-Time Schedulability
+// ==========================================
+// java -jar cpu-scheduler.jar --deadlines <file> [--cpus R] [--balance steal|global] [--migration M]
+//                           [--algorithms edf,rm]
+//
+// Analysis of a workload's periodic tasks (C = CPU time per job, T = period,
+// D = relative deadline), assuming every task releases its first job at the
+// same instant (the worst case) and ignoring context switches and I/O:
+//   EDF  - the processor demand test: no interval [0, L] may hold more work
+//          due by L than L itself, checked at every deadline up to the usual
+//          bound (implicit deadlines reduce this to U <= 1). With too many
+//          deadlines to check, the sufficient density test is used instead.
+//   RM   - response-time analysis in period order: R = C + the interference
+//          of every shorter-period task within R, iterated to a fixed point
+//          and held against min(D, T); Liu & Layland's n(2^(1/n) - 1) bound
+//          is printed alongside.
+//   Cores - ceil(U) at the very least, and how many cores first-fit by
+//          decreasing utilisation needs when every task stays on one core
+//          (partitioned scheduling) under each test.
+// The mode then simulates the whole workload, one-shot jobs included, on
+// each CPU count of R (by default 1 up to the partitioned EDF count) and
+// reports misses and lateness, so the analysis can be checked against runs
+// that do pay for switches and migrations.
+final class Schedulability {
+
+    // Beyond this many deadlines the processor demand test gives way to density
+    private static final long MAX_DEMAND_POINTS = 1 << 22;
+
+    private final List<CPUScheduler.Process> tasks; // in rate-monotonic order
+    private final double utilisation;
+
+    private Schedulability(List<CPUScheduler.Process> tasks) {
+        this.tasks = new ArrayList<>(tasks);
+        this.tasks.sort(Comparator.comparingInt(p -> p.period));
+        double u = 0;
+        for (CPUScheduler.Process p : tasks) u += utilisation(p);
+        this.utilisation = u;
+    }
+
+    static Schedulability of(List<CPUScheduler.Process> tasks) {
+        return new Schedulability(tasks);
+    }
+
+    private static double utilisation(CPUScheduler.Process p) {
+        return (double) p.burstTime / p.period;
+    }
+
+    // ==========================================
+    // Tests
+    // ==========================================
+
+    // Whether EDF meets every deadline of `set` on one core; the second
+    // element of `how`, if given, says which test decided.
+    static boolean edf(List<CPUScheduler.Process> set, String[] how) {
+        double u = 0;
+        boolean implicit = true;
+        long maxDeadline = 0, slack = 0;
+        for (CPUScheduler.Process p : set) {
+            u += utilisation(p);
+            implicit &= p.deadline >= p.period;
+            maxDeadline = Math.max(maxDeadline, p.deadline);
+        }
+        if (u > 1 + 1e-9) return decided(how, "U > 1", false);
+        if (implicit) return decided(how, "U <= 1", true);
+
+        // Past L no interval can be overloaded: max(D) or, below full
+        // utilisation, sum((T - D) * U) / (1 - U) if that is later
+        double bound = maxDeadline;
+        if (u < 1 - 1e-9) {
+            double extra = 0;
+            for (CPUScheduler.Process p : set) extra += Math.max(0, p.period - p.deadline) * utilisation(p);
+            bound = Math.max(bound, extra / (1 - u));
+        } else {
+            long hyperperiod = 1;
+            for (CPUScheduler.Process p : set) {
+                hyperperiod = lcm(hyperperiod, p.period);
+                if (hyperperiod > Integer.MAX_VALUE) break;
+            }
+            bound = (double) hyperperiod + maxDeadline;
+        }
+        long points = 0;
+        for (CPUScheduler.Process p : set) {
+            if (p.deadline <= bound) points += (long) ((bound - p.deadline) / p.period) + 1;
+        }
+        if (points > MAX_DEMAND_POINTS || points * set.size() > 64 * MAX_DEMAND_POINTS) {
+            double density = 0;
+            for (CPUScheduler.Process p : set) density += (double) p.burstTime / Math.min(p.deadline, p.period);
+            return decided(how, "density " + String.format("%.4f", density) + (density <= 1 + 1e-9 ? " <= 1" : " > 1, inconclusive"),
+                    density <= 1 + 1e-9);
+        }
+        for (CPUScheduler.Process p : set) {
+            for (long at = p.deadline; at <= bound; at += p.period) {
+                long demand = 0;
+                for (CPUScheduler.Process q : set) {
+                    if (at >= q.deadline) demand += ((at - q.deadline) / q.period + 1) * q.burstTime;
+                }
+                if (demand > at) return decided(how, "demand " + demand + " > " + at + " by t=" + at, false);
+            }
+        }
+        return decided(how, "processor demand up to t=" + (long) bound, true);
+    }
+
+    // Worst-case response time of every task of `set` under rate-monotonic
+    // priorities, in period order; -1 for one that can miss its deadline
+    static long[] rmResponseTimes(List<CPUScheduler.Process> set) {
+        List<CPUScheduler.Process> byPeriod = new ArrayList<>(set);
+        byPeriod.sort(Comparator.comparingInt(p -> p.period));
+        long[] response = new long[byPeriod.size()];
+        for (int i = 0; i < response.length; i++) {
+            CPUScheduler.Process p = byPeriod.get(i);
+            long limit = Math.min(p.deadline, p.period);
+            long r = p.burstTime;
+            while (r <= limit) {
+                long next = p.burstTime;
+                for (int j = 0; j < i; j++) {
+                    CPUScheduler.Process q = byPeriod.get(j);
+                    next += (r + q.period - 1) / q.period * q.burstTime;
+                }
+                if (next == r) break;
+                r = next;
+            }
+            response[i] = r <= limit ? r : -1;
+        }
+        return response;
+    }
+
+    static boolean rm(List<CPUScheduler.Process> set) {
+        for (long r : rmResponseTimes(set)) {
+            if (r < 0) return false;
+        }
+        return true;
+    }
+
+    // Cores first-fit needs, tasks taken by decreasing utilisation; -1 if
+    // some task does not fit even on a core of its own
+    int partitioned(boolean rm) {
+        List<CPUScheduler.Process> order = new ArrayList<>(tasks);
+        order.sort(Comparator.comparingDouble(Schedulability::utilisation).reversed());
+        List<List<CPUScheduler.Process>> cores = new ArrayList<>();
+        for (CPUScheduler.Process p : order) {
+            boolean placed = false;
+            for (List<CPUScheduler.Process> core : cores) {
+                core.add(p);
+                if (rm ? rm(core) : edf(core, null)) {
+                    placed = true;
+                    break;
+                }
+                core.remove(core.size() - 1);
+            }
+            if (!placed) {
+                List<CPUScheduler.Process> core = new ArrayList<>(List.of(p));
+                if (!(rm ? rm(core) : edf(core, null))) return -1;
+                cores.add(core);
+            }
+        }
+        return cores.size();
+    }
+
+    private static boolean decided(String[] how, String reason, boolean result) {
+        if (how != null) how[0] = reason;
+        return result;
+    }
+
+    private static long lcm(long a, long b) {
+        long x = a, y = b;
+        while (y != 0) {
+            long r = x % y;
+            x = y;
+            y = r;
+        }
+        return a / x * b;
+    }
+
+    // ==========================================
+    // Report
+    // ==========================================
+    void print(PrintStream out) {
+        out.println("\nSchedulability (" + tasks.size() + " periodic tasks, released together, no switch cost):");
+        String line = "+------------+------------+------------+------------+-------------+-------------+";
+        out.println(line);
+        out.printf("| %-10s | %-10s | %-10s | %-10s | %-11s | %-11s |%n", "Task", "C", "T", "D", "Utilisation", "RM Response");
+        out.println(line);
+        long[] response = rmResponseTimes(tasks);
+        for (int i = 0; i < tasks.size(); i++) {
+            CPUScheduler.Process p = tasks.get(i);
+            out.printf("| %-10s | %-10d | %-10d | %-10d | %-11.4f | %-11s |%n", p.name, p.burstTime, p.period, p.deadline,
+                    utilisation(p), response[i] < 0 ? "MISS" : String.valueOf(response[i]));
+        }
+        out.println(line);
+
+        int n = tasks.size();
+        String[] how = new String[1];
+        boolean edf = edf(tasks, how);
+        out.printf("%nTotal Utilisation:       %.4f%n", utilisation);
+        out.println("EDF on 1 CPU:            " + (edf ? "schedulable" : "NOT schedulable") + " (" + how[0] + ")");
+        out.printf("RM on 1 CPU:             %s (response-time analysis; Liu & Layland bound %.4f)%n",
+                rm(tasks) ? "schedulable" : "NOT schedulable", n * (Math.pow(2, 1.0 / n) - 1));
+        int edfCores = partitioned(false), rmCores = partitioned(true);
+        out.printf("Cores Needed:            at least %d; partitioned first-fit %s with EDF, %s with RM%n",
+                Math.max(1, (int) Math.ceil(utilisation - 1e-9)),
+                edfCores < 0 ? "never" : String.valueOf(edfCores), rmCores < 0 ? "never" : String.valueOf(rmCores));
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static int run(String[] args) {
+        Path file = null;
+        List<Integer> cpuCounts = null;
+        boolean steal = true;
+        int migration = 1;
+        List<String> algorithms = List.of("edf", "rm");
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException(args[i] + " expects a value");
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--deadlines": file = Paths.get(value); break;
+                    case "--cpus": cpuCounts = SweepRunner.parseRange(args[i], value, 1); break;
+                    case "--balance":
+                        if (!value.equals("steal") && !value.equals("global")) throw new IllegalArgumentException("--balance expects steal or global");
+                        steal = value.equals("steal");
+                        break;
+                    case "--migration": migration = SweepRunner.parseRange(args[i], value, 0).get(0); break;
+                    case "--algorithms":
+                        algorithms = Arrays.asList(value.toLowerCase().split(","));
+                        for (String a : algorithms) {
+                            if (!BatchRunner.ALGORITHMS.contains(a)) throw new IllegalArgumentException("unknown algorithm '" + a + "'");
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+                }
+            }
+            if (file == null) throw new IllegalArgumentException("--deadlines expects a workload file");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --deadlines <file> [--cpus R] [--balance steal|global] [--migration M] [--algorithms edf,rm]");
+            return 2;
+        }
+
+        CPUScheduler.Workload w;
+        try {
+            w = WorkloadParser.parse(file);
+        } catch (java.io.IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            return 1;
+        }
+        if (w.processes.isEmpty()) {
+            System.out.println("Error: No processes found.");
+            return 1;
+        }
+        if (!w.hasDeadlines) {
+            System.out.println("Error: " + file + " has no deadlines; give processes a \"deadline\" or a \"period\".");
+            return 1;
+        }
+
+        System.out.println("Workload: " + file.getFileName() + " (" + w.tasks.size() + " periodic tasks, " + w.processes.size()
+                + " jobs) [CS: " + w.contextSwitch + "] [Balance: " + (steal ? "steal" : "global") + "] [Migration: " + migration + "]");
+        int suggested = 1;
+        if (!w.tasks.isEmpty()) {
+            Schedulability s = of(w.tasks);
+            s.print(System.out);
+            suggested = Math.max(1, s.partitioned(false));
+        }
+        if (cpuCounts == null) {
+            cpuCounts = new ArrayList<>();
+            for (int n = 1; n <= Math.min(suggested, 64); n++) cpuCounts.add(n);
+        }
+
+        ProcessTable table = ProcessTable.of(w.processes);
+        String line = "+------+-----------+----------+----------+---------+----------+----------+----------+--------------+-------------+";
+        System.out.println("\nSimulated:");
+        System.out.println(line);
+        System.out.printf("| %-4s | %-9s | %-8s | %-8s | %-7s | %-8s | %-8s | %-8s | %-12s | %-11s |%n",
+                "CPUs", "Algorithm", "Jobs", "Missed", "Miss %", "Tard p50", "Tard p99", "Tard Max", "Max Lateness", "Utilisation");
+        System.out.println(line);
+        for (int n : cpuCounts) {
+            for (String a : algorithms) {
+                SmpSimulator smp = new SmpSimulator(table, n, steal, migration, w.contextSwitch, w.rrQuantum, w.agingInterval, w.tuning());
+                smp.simulate(a);
+                RunMetrics m = table.metrics();
+                System.out.printf("| %-4d | %-9s | %-8d | %-8d | %-7s | %-8d | %-8d | %-8d | %-12d | %-11s |%n",
+                        n, BatchRunner.LABELS.get(a), m.deadlineJobs, m.deadlineMisses, String.format("%.2f%%", 100 * m.missRate()),
+                        m.tardiness.percentile(50), m.tardiness.percentile(99), m.tardiness.max(), m.maxLateness,
+                        String.format("%.2f%%", 100 * smp.utilisation()));
+            }
+        }
+        System.out.println(line);
+        return 0;
+    }
+}
@@ -0,0 +1,290 @@
+package scheduler;
+
+import java.util.*;
+
+// ==========================================
+// Incremental Scheduler
+// ==========================================
+// Scheduler s = Scheduler.rr(1, 4);
+// s.submit("P1", 0, 5, 3, 0);
+// s.advanceTo(3);          // P1 has run for 3 units
+// s.running();             // "P1"
+// s.submit("P2", 7, 2, 1, 0);
+// while (s.step()) { ... } // event by event until both are done
+// s.stats();               // metrics over the completed processes
+//
+// Every algorithm is a state machine over a ProcessTable that only relies on
+// arrivals up to a horizon: advance(h) takes every scheduling decision at or
+// before h and stops where a later arrival could still change what happens
+// next (part way through a slice, a context switch, or idle). The batch
+// simulators run it once with an unbounded horizon over a table holding the
+// whole workload; the online schedulers built here run it over a streaming
+// table fed by submit(). That table recycles the row of every completed
+// process and keeps only running totals, so neither the cost of an event nor
+// the memory held depends on how many processes have already completed.
+//
+// Processes are submitted in arrival order and must arrive after the time
+// the scheduler has already been advanced to. Given the same processes, the
+// online result matches the batch simulator's however the calls are split.
+public abstract class Scheduler {
+
+    final ProcessTable t;
+    final Lane lane; // arrivals and queues; the table itself on a single CPU
+    int time; // where the state machine stands; never ahead of the horizon
+    private int horizon = -1;
+    private Submissions submissions; // null for a batch run over a fixed table
+
+    // This scheduler's share of the table's counters, for per-core metrics
+    long busyTime, contextSwitches, contextSwitchTime, completions, blocks;
+    int core; // which CPU this is in an SMP run, for the trace
+
+    Scheduler(ProcessTable t, Lane lane) {
+        this.t = t;
+        this.lane = lane;
+    }
+
+    // ---- Online schedulers ----
+
+    public static Scheduler sjf(int contextSwitch) {
+        Submissions s = new Submissions();
+        return online(new CPUScheduler.SJFScheduler(ProcessTable.streaming(s), contextSwitch), s);
+    }
+
+    public static Scheduler rr(int contextSwitch, int quantum) {
+        if (quantum < 1) throw new IllegalArgumentException("the quantum must be at least 1");
+        Submissions s = new Submissions();
+        return online(new CPUScheduler.RRScheduler(ProcessTable.streaming(s), contextSwitch, quantum), s);
+    }
+
+    public static Scheduler priority(int contextSwitch, int agingInterval) {
+        Submissions s = new Submissions();
+        return online(new CPUScheduler.PriorityScheduler(ProcessTable.streaming(s), contextSwitch, agingInterval), s);
+    }
+
+    public static Scheduler ag() {
+        Submissions s = new Submissions();
+        return online(new CPUScheduler.AGScheduler(ProcessTable.streaming(s)), s);
+    }
+
+    // `quanta` holds one quantum per level, top level first; 0 never boosts.
+    public static Scheduler mlfq(int contextSwitch, int[] quanta, int boostInterval) {
+        CPUScheduler.MlfqConfig mlfq = new CPUScheduler.MlfqConfig(quanta, boostInterval);
+        Submissions s = new Submissions();
+        return online(new CPUScheduler.MLFQScheduler(ProcessTable.streaming(s), contextSwitch, mlfq), s);
+    }
+
+    public static Scheduler cfs(int contextSwitch, int targetLatency, int minGranularity) {
+        CPUScheduler.CfsConfig cfs = new CPUScheduler.CfsConfig(targetLatency, minGranularity);
+        Submissions s = new Submissions();
+        return online(new CPUScheduler.CFSScheduler(ProcessTable.streaming(s), contextSwitch, cfs), s);
+    }
+
+    private static Scheduler online(Scheduler scheduler, Submissions s) {
+        scheduler.submissions = s;
+        return scheduler;
+    }
+
+    // Queues a process; `quantum` is only used by AG.
+    public void submit(String name, int arrival, int burst, int priority, int quantum) {
+        if (submissions == null) throw new IllegalStateException("this scheduler runs a fixed workload");
+        if (burst < 1) throw new IllegalArgumentException(name + ": the burst must be at least 1");
+        if (arrival <= horizon) {
+            throw new IllegalArgumentException(name + " arrives at " + arrival + ", but the scheduler is already at " + horizon);
+        }
+        if (arrival < submissions.lastArrival) {
+            throw new IllegalArgumentException(name + " arrives before " + submissions.lastName + "; submit in arrival order");
+        }
+        submissions.add(name, arrival, burst, priority, quantum);
+    }
+
+    // Simulates up to and including `time`, taking every process that
+    // arrives by then to have been submitted already.
+    public void advanceTo(int time) {
+        if (time < horizon) throw new IllegalArgumentException("cannot go back from " + horizon + " to " + time);
+        horizon = time;
+        advance(time);
+        t.peakReady = peakReady();
+    }
+
+    // Advances to the next instant at which the scheduler acts, assuming
+    // nothing else arrives before it. False when there is nothing left to do.
+    public boolean step() {
+        int next = nextEventTime();
+        if (next == Integer.MAX_VALUE) return false;
+        advanceTo(Math.max(next, horizon));
+        return true;
+    }
+
+    // ---- Queries ----
+
+    public int now() { return Math.max(horizon, 0); }
+
+    // The process on the CPU, null while idle or switching
+    public String running() {
+        int row = runningRow();
+        return row < 0 ? null : t.name[row];
+    }
+
+    // Waiting processes, in the order the algorithm would pick them now
+    public List<String> readyQueue() {
+        int[] rows = readyRows();
+        List<String> names = new ArrayList<>(rows.length);
+        for (int row : rows) names.add(t.name[row]);
+        return names;
+    }
+
+    public long completed() { return t.completedCount(); }
+
+    // Latency percentiles, utilisation and the rest over the completed processes
+    public RunMetrics stats() {
+        t.peakReady = peakReady();
+        return t.metrics();
+    }
+
+    // ---- Table updates, counted per scheduler ----
+
+    void run(int row, int from, int to) {
+        if (to > from) {
+            busyTime += to - from;
+            if (t.trace != null) t.trace.run(core, row, from, to);
+        }
+        t.run(row, from, to);
+    }
+
+    void contextSwitch(int from, int to) {
+        if (to > from) {
+            contextSwitches++;
+            contextSwitchTime += to - from;
+            if (t.trace != null) t.trace.contextSwitch(core, from, to);
+        }
+        t.contextSwitch(from, to);
+    }
+
+    void complete(int row, int time) {
+        completions++;
+        if (t.trace != null) t.trace.complete(core, row, time);
+        t.complete(row, time);
+    }
+
+    // The CPU burst of `row` is over at `time`: it blocks on the I/O that
+    // follows and comes back through the lane once that is done, or
+    // completes if it was the last. True if it completed.
+    boolean endBurst(int row, int time) {
+        if (!t.block(row, time)) {
+            complete(row, time);
+            return true;
+        }
+        blocks++;
+        if (t.trace != null) t.trace.block(core, row, time);
+        return false;
+    }
+
+    // What a scheduler runs against besides the table's columns: where its
+    // processes come from and the queues it keeps them in. A table is its own
+    // lane on a single CPU; in an SMP run every core has a lane of its own
+    // over one shared table (see SmpSimulator).
+    interface Lane {
+        boolean hasArrivals();
+        int nextArrivalTime(); // Integer.MAX_VALUE when there is none
+        boolean arrivedBy(int time);
+        int admit();
+        boolean finished();
+        ProcessTable.Heap heapA(ProcessTable.Heap.Order order);
+        ProcessTable.Heap heapB(ProcessTable.Heap.Order order);
+        ProcessTable.Fifo fifo();
+        ProcessTable.Fifo[] fifos(int count); // over one set of links; a row waits in one at a time
+    }
+
+    // ---- Algorithm hooks ----
+
+    // Takes every decision at or before `horizon`.
+    abstract void advance(int horizon);
+
+    // The next instant at which advance() would act, Integer.MAX_VALUE if none.
+    abstract int nextEventTime();
+
+    abstract int runningRow();
+
+    abstract int[] readyRows();
+
+    abstract int readySize();
+
+    // Takes a waiting process out of the ready queue for another core to
+    // run, preferring one the algorithm would pick last; -1 if none waits.
+    abstract int steal();
+
+    abstract int peakReady();
+
+    // Ready rows in heap order, for readyRows()
+    static int[] sorted(ProcessTable t, ProcessTable.Heap heap, ProcessTable.Heap.Order order) {
+        Integer[] rows = new Integer[heap.size()];
+        for (int i = 0; i < rows.length; i++) rows[i] = heap.at(i);
+        Arrays.sort(rows, (a, b) -> order.before(t, a, b) ? -1 : order.before(t, b, a) ? 1 : 0);
+        int[] result = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) result[i] = rows[i];
+        return result;
+    }
+
+    static int[] inOrder(ProcessTable.Fifo fifo) {
+        int[] rows = new int[fifo.size()];
+        for (int i = 0, row = fifo.peek(); row >= 0; row = fifo.next(row)) rows[i++] = row;
+        return rows;
+    }
+
+    // Processes submitted but not yet taken into the table: a ring of
+    // primitive columns, so a pending process costs no more than its name
+    private static final class Submissions implements ProcessTable.Source {
+        private String[] name = new String[64];
+        private int[] arrival = new int[64], burst = new int[64], priority = new int[64], quantum = new int[64];
+        private int head, count;
+        int lastArrival;
+        String lastName;
+
+        void add(String n, int a, int b, int p, int q) {
+            if (count == name.length) grow();
+            int i = (head + count++) & (name.length - 1);
+            name[i] = n;
+            arrival[i] = a;
+            burst[i] = b;
+            priority[i] = p;
+            quantum[i] = q;
+            lastArrival = a;
+            lastName = n;
+        }
+
+        @Override
+        public boolean next(CPUScheduler.Process into) {
+            if (count == 0) return false;
+            into.name = name[head];
+            into.arrivalTime = arrival[head];
+            into.burstTime = burst[head];
+            into.priority = priority[head];
+            into.quantum = quantum[head];
+            name[head] = null;
+            head = (head + 1) & (name.length - 1);
+            count--;
+            return true;
+        }
+
+        // Nothing to replay: an online table is only reset when it is created
+        @Override
+        public void rewind() {}
+
+        private void grow() {
+            int n = name.length;
+            name = unwrap(name, new String[2 * n], n);
+            arrival = unwrap(arrival, new int[2 * n], n);
+            burst = unwrap(burst, new int[2 * n], n);
+            priority = unwrap(priority, new int[2 * n], n);
+            quantum = unwrap(quantum, new int[2 * n], n);
+            head = 0;
+        }
+
+        // Copies the ring into `into` starting at index 0
+        private <A> A unwrap(A ring, A into, int n) {
+            System.arraycopy(ring, head, into, 0, n - head);
+            System.arraycopy(ring, 0, into, n - head, head);
+            return into;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package scheduler;
+
+import java.nio.file.*;
+import java.util.*;
+
+// ==========================================
+// Multi-CPU (SMP) Simulation
+// ==========================================
+// java -jar cpu-scheduler.jar --smp <file> [--cpus R] [--balance steal|global] [--migration M]
+//                           [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--trace <prefix>]
+//
+// N cores, each running its own copy of the algorithm (the Scheduler state
+// machine) with its own ready queue, over one shared table so a process keeps
+// its remaining time, priority and quantum wherever it runs. The cores are
+// moved forward together from one event to the next. Load balancing:
+//   steal  - each arrival goes to a home core, round robin in arrival order.
+//            A core with nothing left to do steals a waiting process from the
+//            core with the longest ready queue; the process reaches the thief
+//            M units later (the migration cost, paid on top of the context
+//            switch the thief then makes).
+//   global - arrivals wait in one shared queue in the algorithm's order (FIFO
+//            for RR and AG). An idle core takes the head, and so does a busy
+//            core with nothing else waiting, so preemption and rotation still
+//            have a competitor to look at. Nothing moves once handed out.
+// R is a CPU count, a list or a range as for --sweep (default 4). The summary
+// has one line per CPU count and algorithm; with a single count every core's
+// utilisation, switches, migrations and peak queue are listed as well.
+// Imbalance is the busiest core's busy time over the mean (1.00 = even).
+// --trace writes each algorithm's run (single CPU count only) as a binary
+// Trace to <prefix>.<algorithm>.trace.
+class SmpSimulator {
+
+    private final ProcessTable t;
+    private final int cpus;
+    private final boolean steal;
+    private final int migrationCost;
+    private final int contextSwitch, rrQuantum, agingInterval;
+    private final CPUScheduler.Tuning tuning;
+
+    // Position indexes shared by every core's queues of one kind: a row is
+    // only ever in one core's queue, so one full-size index per kind will do
+    private final int[] posA, posB, posInbox, fifoNext, fifoPrev;
+    private final int[] available; // when a handed-out row reaches its core
+    // Hand-off order, which breaks ties in a core's inbox: a process back
+    // from I/O keeps its admission number, so that would put it ahead of a
+    // new arrival that the table hands out first
+    private final long[] handed;
+    private long handoffs;
+
+    private Core[] cores;
+    long migrations, migrationTime;
+    int span; // of the last simulate(); the table only keeps its latest run
+
+    SmpSimulator(ProcessTable t, int cpus, boolean steal, int migrationCost, int contextSwitch, int rrQuantum, int agingInterval) {
+        this(t, cpus, steal, migrationCost, contextSwitch, rrQuantum, agingInterval, CPUScheduler.Tuning.defaults(rrQuantum));
+    }
+
+    SmpSimulator(ProcessTable t, int cpus, boolean steal, int migrationCost, int contextSwitch, int rrQuantum, int agingInterval,
+                 CPUScheduler.Tuning tuning) {
+        this.t = t;
+        this.cpus = cpus;
+        this.steal = steal;
+        this.migrationCost = migrationCost;
+        this.contextSwitch = contextSwitch;
+        this.rrQuantum = rrQuantum;
+        this.agingInterval = agingInterval;
+        this.tuning = tuning;
+        posA = new int[t.size];
+        posB = new int[t.size];
+        posInbox = new int[t.size];
+        fifoNext = new int[t.size];
+        fifoPrev = new int[t.size];
+        available = new int[t.size];
+        handed = new long[t.size];
+    }
+
+    // ==========================================
+    // Cores
+    // ==========================================
+    // A core's lane: its arrivals are the processes handed to it, in the
+    // order they become available, and its queues index into the shared arrays.
+    private final class Core implements Scheduler.Lane {
+        final int id;
+        final ProcessTable.Heap inbox;
+        final Scheduler scheduler;
+        int next; // cached scheduler.nextEventTime()
+        int held; // handed to this core and not stolen since, completed, blocked or not
+        long stolenIn, stolenOut;
+
+        Core(int id, String algorithm) {
+            this.id = id;
+            this.inbox = new ProcessTable.Heap(t, posInbox, (tt, a, b) ->
+                available[a] != available[b] ? available[a] < available[b] : handed[a] < handed[b]);
+            switch (algorithm) {
+                case "sjf": scheduler = new CPUScheduler.SJFScheduler(t, this, contextSwitch); break;
+                case "rr": scheduler = new CPUScheduler.RRScheduler(t, this, contextSwitch, rrQuantum); break;
+                case "priority": scheduler = new CPUScheduler.PriorityScheduler(t, this, contextSwitch, agingInterval); break;
+                case "ag": scheduler = new CPUScheduler.AGScheduler(t, this); break;
+                case "mlfq": scheduler = new CPUScheduler.MLFQScheduler(t, this, contextSwitch, tuning.mlfq); break;
+                case "cfs": scheduler = new CPUScheduler.CFSScheduler(t, this, contextSwitch, tuning.cfs); break;
+                case "edf": scheduler = new CPUScheduler.DeadlineScheduler(t, this, contextSwitch, CPUScheduler.EDF_ORDER); break;
+                case "rm": scheduler = new CPUScheduler.DeadlineScheduler(t, this, contextSwitch, CPUScheduler.RM_ORDER); break;
+                default: throw new IllegalArgumentException("unknown algorithm '" + algorithm + "'");
+            }
+            scheduler.core = id;
+            next = scheduler.nextEventTime();
+        }
+
+        void advanceTo(int time) {
+            scheduler.advanceTo(time);
+            next = scheduler.nextEventTime();
+        }
+
+        boolean idle() { return next == Integer.MAX_VALUE; }
+
+        @Override public boolean hasArrivals() { return !inbox.isEmpty(); }
+        @Override public int nextArrivalTime() { return inbox.isEmpty() ? Integer.MAX_VALUE : available[inbox.peek()]; }
+        @Override public boolean arrivedBy(int time) { return nextArrivalTime() <= time; }
+        @Override public int admit() { return inbox.poll(); }
+        @Override public boolean finished() { return inbox.isEmpty() && held == scheduler.completions + scheduler.blocks; }
+        @Override public ProcessTable.Heap heapA(ProcessTable.Heap.Order order) { return new ProcessTable.Heap(t, posA, order); }
+        @Override public ProcessTable.Heap heapB(ProcessTable.Heap.Order order) { return new ProcessTable.Heap(t, posB, order); }
+        @Override public ProcessTable.Fifo fifo() { return new ProcessTable.Fifo(fifoNext, fifoPrev); }
+
+        @Override
+        public ProcessTable.Fifo[] fifos(int count) {
+            ProcessTable.Fifo[] fifos = new ProcessTable.Fifo[count];
+            for (int i = 0; i < count; i++) fifos[i] = fifo();
+            return fifos;
+        }
+    }
+
+    // ==========================================
+    // Simulation
+    // ==========================================
+    void simulate(String algorithm) {
+        // Cores finish out of order, so one timeline for all of them means
+        // nothing; the table goes back to recording afterwards
+        boolean recording = t.timeline.recording();
+        t.timeline.setRecording(false);
+        try {
+            schedule(algorithm);
+        } finally {
+            t.timeline.setRecording(recording);
+        }
+        span = t.span();
+    }
+
+    private void schedule(String algorithm) {
+        t.reset();
+        Arrays.fill(posA, -1);
+        Arrays.fill(posB, -1);
+        Arrays.fill(posInbox, -1);
+        migrations = migrationTime = handoffs = 0;
+        cores = new Core[cpus];
+        for (int i = 0; i < cpus; i++) cores[i] = new Core(i, algorithm);
+        ProcessTable.Heap global = null;
+        if (!steal) {
+            int[] pos = new int[t.size];
+            Arrays.fill(pos, -1);
+            global = new ProcessTable.Heap(t, pos, globalOrder(algorithm));
+        }
+
+        int time = t.nextArrivalTime();
+        while (time != Integer.MAX_VALUE) {
+            while (t.arrivedBy(time)) {
+                int row = t.admit();
+                if (global != null) global.add(row);
+                else hand(cores[(int) (t.admitted[row] % cpus)], row, time);
+            }
+            // Cores due by now catch up; balancing may hand out work that is
+            // available at once, so repeat until nothing else moves
+            do {
+                for (Core c : cores) {
+                    if (c.next <= time) c.advanceTo(time);
+                }
+            } while (global != null ? pull(global, time) : stealWork(time));
+
+            time = t.nextArrivalTime();
+            for (Core c : cores) time = Math.min(time, c.next);
+        }
+
+        int peak = 0;
+        for (Core c : cores) peak = Math.max(peak, c.scheduler.peakReady());
+        t.peakReady = peak;
+    }
+
+    private void hand(Core c, int row, int at) {
+        available[row] = at;
+        handed[row] = handoffs++;
+        c.inbox.add(row);
+        c.held++;
+        c.next = c.scheduler.nextEventTime();
+    }
+
+    // Every idle core takes a waiting process from the core with the most
+    // waiting; returns whether anything moved.
+    private boolean stealWork(int time) {
+        boolean moved = false;
+        for (Core thief : cores) {
+            if (!thief.idle()) continue;
+            Core victim = null;
+            for (Core c : cores) {
+                int waiting = c.scheduler.readySize();
+                if (waiting > 0 && (victim == null || waiting > victim.scheduler.readySize())) victim = c;
+            }
+            if (victim == null) break;
+            int row = victim.scheduler.steal();
+            victim.held--;
+            victim.stolenOut++;
+            victim.next = victim.scheduler.nextEventTime();
+            thief.stolenIn++;
+            migrations++;
+            migrationTime += migrationCost;
+            hand(thief, row, time + migrationCost);
+            moved = true;
+        }
+        return moved;
+    }
+
+    // Idle cores first, then busy ones with nothing else waiting.
+    private boolean pull(ProcessTable.Heap global, int time) {
+        boolean moved = false;
+        for (int pass = 0; pass < 2; pass++) {
+            for (Core c : cores) {
+                if (global.isEmpty()) return moved;
+                boolean wants = pass == 0 ? c.idle() : c.scheduler.readySize() == 0 && !c.hasArrivals();
+                if (wants) {
+                    hand(c, global.poll(), time);
+                    moved = true;
+                }
+            }
+        }
+        return moved;
+    }
+
+    private static ProcessTable.Heap.Order globalOrder(String algorithm) {
+        switch (algorithm) {
+            case "sjf": return CPUScheduler.SJF_ORDER;
+            case "priority": return CPUScheduler.PRIORITY_ORDER;
+            case "edf": return CPUScheduler.EDF_ORDER;
+            case "rm": return CPUScheduler.RM_ORDER;
+            default: return (t, a, b) -> t.admitted[a] < t.admitted[b];
+        }
+    }
+
+    // ---- Results ----
+
+    // Busiest core's busy time over the mean
+    double imbalance() {
+        long total = 0, max = 0;
+        for (Core c : cores) {
+            total += c.scheduler.busyTime;
+            max = Math.max(max, c.scheduler.busyTime);
+        }
+        return total == 0 ? 1 : (double) max * cores.length / total;
+    }
+
+    // Busy time over the span, across all cores
+    double utilisation() {
+        long busy = 0;
+        for (Core c : cores) busy += c.scheduler.busyTime;
+        return span == 0 ? 0 : (double) busy / ((long) span * cores.length);
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static int run(String[] args) {
+        Path file = null;
+        List<Integer> cpuCounts = List.of(4);
+        boolean steal = true;
+        int migration = 1;
+        List<String> algorithms = List.of("auto");
+        String tracePrefix = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException(args[i] + " expects a value");
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--smp": file = Paths.get(value); break;
+                    case "--cpus": cpuCounts = SweepRunner.parseRange(args[i], value, 1); break;
+                    case "--balance":
+                        if (!value.equals("steal") && !value.equals("global")) throw new IllegalArgumentException("--balance expects steal or global");
+                        steal = value.equals("steal");
+                        break;
+                    case "--trace": tracePrefix = value; break;
+                    case "--migration": migration = SweepRunner.parseRange(args[i], value, 0).get(0); break;
+                    case "--algorithms":
+                        algorithms = Arrays.asList(value.toLowerCase().split(","));
+                        for (String a : algorithms) {
+                            if (!a.equals("auto") && !BatchRunner.ALGORITHMS.contains(a)) throw new IllegalArgumentException("unknown algorithm '" + a + "'");
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+                }
+            }
+            if (file == null) throw new IllegalArgumentException("--smp expects a workload file");
+            if (tracePrefix != null && cpuCounts.size() > 1) throw new IllegalArgumentException("--trace needs a single CPU count");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --smp <file> [--cpus R] [--balance steal|global] [--migration M] [--algorithms auto|sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--trace <prefix>]");
+            return 2;
+        }
+
+        CPUScheduler.Workload w;
+        try {
+            w = WorkloadParser.parse(file);
+        } catch (java.io.IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            return 1;
+        }
+        if (w.processes.isEmpty()) {
+            System.out.println("Error: No processes found.");
+            return 1;
+        }
+        if (algorithms.contains("auto")) {
+            algorithms = CPUScheduler.autoAlgorithms(file.getFileName().toString(), w);
+        }
+
+        ProcessTable table = ProcessTable.of(w.processes);
+        System.out.println("Workload: " + file.getFileName() + " (" + w.processes.size() + " processes) [CS: " + w.contextSwitch
+                + "] [RR: " + w.rrQuantum + "] [Aging: " + w.agingInterval + "] [Balance: " + (steal ? "steal" : "global")
+                + "] [Migration: " + migration + "]");
+        String line = "+------+-----------+-------------+-------------+----------------+-------------+-----------+------------+--------+";
+        System.out.println(line);
+        System.out.printf("| %-4s | %-9s | %-11s | %-11s | %-14s | %-11s | %-9s | %-10s | %-6s |%n",
+                "CPUs", "Algorithm", "Avg Waiting", "P99 Waiting", "Avg Turnaround", "Utilisation", "Imbalance", "Migrations", "Span");
+        System.out.println(line);
+        List<SmpSimulator> detail = new ArrayList<>();
+        for (int n : cpuCounts) {
+            for (String a : algorithms) {
+                SmpSimulator smp = new SmpSimulator(table, n, steal, migration, w.contextSwitch, w.rrQuantum, w.agingInterval, w.tuning());
+                if (tracePrefix == null) {
+                    smp.simulate(a);
+                } else {
+                    Path target = Paths.get(tracePrefix + "." + a + ".trace");
+                    try {
+                        BatchRunner.traced(table, target, n, () -> smp.simulate(a));
+                    } catch (java.io.UncheckedIOException e) {
+                        System.out.println("Error: cannot write " + target + ": " + e.getCause().getMessage());
+                        return 1;
+                    }
+                }
+                RunMetrics m = table.metrics();
+                System.out.printf("| %-4d | %-9s | %-11.2f | %-11d | %-14.2f | %-11s | %-9.2f | %-10d | %-6d |%n",
+                        n, BatchRunner.LABELS.get(a), table.averageWaiting(), m.waiting.percentile(99), table.averageTurnaround(),
+                        String.format("%.2f%%", 100 * smp.utilisation()), smp.imbalance(), smp.migrations, m.span);
+                if (cpuCounts.size() == 1) detail.add(smp);
+            }
+        }
+        System.out.println(line);
+
+        for (int i = 0; i < detail.size(); i++) detail.get(i).printCores(BatchRunner.LABELS.get(algorithms.get(i)));
+        return 0;
+    }
+
+    private void printCores(String label) {
+        String line = "+------+-----------+------------+-------------+----------+-----------+------------+-----------+";
+        System.out.println("\n" + label + " per core (" + migrations + " migrations, " + migrationTime + " units in flight):");
+        System.out.println(line);
+        System.out.printf("| %-4s | %-9s | %-10s | %-11s | %-8s | %-9s | %-10s | %-9s |%n",
+                "Core", "Completed", "Busy", "Utilisation", "Switches", "Stolen In", "Stolen Out", "Max Ready");
+        System.out.println(line);
+        for (Core c : cores) {
+            Scheduler s = c.scheduler;
+            System.out.printf("| %-4d | %-9d | %-10d | %-11s | %-8d | %-9d | %-10d | %-9d |%n",
+                    c.id, s.completions, s.busyTime, String.format("%.2f%%", span == 0 ? 0 : 100.0 * s.busyTime / span),
+                    s.contextSwitches, c.stolenIn, c.stolenOut, s.peakReady());
+        }
+        System.out.println(line);
+    }
+}
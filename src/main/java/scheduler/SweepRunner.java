@@ -0,0 +1,220 @@
+package scheduler;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// ==========================================
+// Parameter Sweep Mode
+// ==========================================
+// java -jar cpu-scheduler.jar --sweep <file> [--context-switch R] [--rr-quantum R] [--aging R]
+//                           [--ag-scale R] [--algorithms sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--threads N]
+//
+// R is a single value, a list "1,2,4" or a range "from:to[:step]". Parameters
+// left out keep the value from the workload file (AG scale defaults to 100%).
+// The file is parsed once; every algorithm is then simulated for each
+// combination of the parameters it actually uses (SJF: context switch, RR:
+// context switch x quantum, Priority: context switch x aging, AG: quantum
+// scale in percent) in parallel, and the configurations are ranked by
+// average waiting time, then average turnaround time.
+class SweepRunner {
+
+    private Path file;
+    private List<Integer> contextSwitches, rrQuantums, agingIntervals;
+    private List<Integer> agScales = List.of(100);
+    private List<String> algorithms = BatchRunner.ALGORITHMS;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // One simulated grid point
+    static class Config {
+        final String algorithm;
+        final int contextSwitch, rrQuantum, agingInterval, agScale; // -1 when not used by the algorithm
+        CPUScheduler.Tuning tuning; // MLFQ and CFS only
+        double averageWaiting, averageTurnaround;
+
+        Config(String algorithm, int contextSwitch, int rrQuantum, int agingInterval, int agScale) {
+            this.algorithm = algorithm;
+            this.contextSwitch = contextSwitch;
+            this.rrQuantum = rrQuantum;
+            this.agingInterval = agingInterval;
+            this.agScale = agScale;
+        }
+    }
+
+    public static int run(String[] args) {
+        SweepRunner runner = new SweepRunner();
+        try {
+            runner.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --sweep <file> [--context-switch R] [--rr-quantum R] [--aging R] [--ag-scale R] [--algorithms sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--threads N]");
+            System.out.println("       R = value | v1,v2,... | from:to[:step]");
+            return 2;
+        }
+        return runner.sweep();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) throw new IllegalArgumentException(args[i] + " expects a value");
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--sweep": file = Paths.get(value); break;
+                case "--context-switch": contextSwitches = parseRange(args[i], value, 0); break;
+                case "--rr-quantum": rrQuantums = parseRange(args[i], value, 1); break;
+                case "--aging": agingIntervals = parseRange(args[i], value, 0); break;
+                case "--ag-scale": agScales = parseRange(args[i], value, 1); break;
+                case "--algorithms":
+                    algorithms = Arrays.asList(value.toLowerCase().split(","));
+                    for (String a : algorithms) {
+                        if (!BatchRunner.ALGORITHMS.contains(a)) throw new IllegalArgumentException("unknown algorithm '" + a + "'");
+                    }
+                    break;
+                case "--threads":
+                    threads = parseRange(args[i], value, 1).get(0);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("--sweep expects a workload file");
+    }
+
+    static List<Integer> parseRange(String option, String spec, int min) {
+        List<Integer> values = new ArrayList<>();
+        try {
+            if (spec.contains(":")) {
+                String[] parts = spec.split(":");
+                if (parts.length > 3) throw new NumberFormatException();
+                int from = Integer.parseInt(parts[0].trim());
+                int to = Integer.parseInt(parts[1].trim());
+                int step = parts.length == 3 ? Integer.parseInt(parts[2].trim()) : 1;
+                if (step < 1 || to < from) throw new IllegalArgumentException(option + ": range must satisfy from <= to and step >= 1");
+                for (long v = from; v <= to; v += step) values.add((int) v);
+            } else {
+                for (String part : spec.split(",")) values.add(Integer.parseInt(part.trim()));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + ": cannot parse '" + spec + "'");
+        }
+        for (int v : values) {
+            if (v < min) throw new IllegalArgumentException(option + ": values must be at least " + min);
+        }
+        return values;
+    }
+
+    private int sweep() {
+        CPUScheduler.Workload workload;
+        try {
+            workload = WorkloadParser.parse(file);
+        } catch (java.io.IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            return 1;
+        }
+        if (workload.processes.isEmpty()) {
+            System.out.println("Error: No processes found.");
+            return 1;
+        }
+        if (contextSwitches == null) contextSwitches = List.of(workload.contextSwitch);
+        if (rrQuantums == null) rrQuantums = List.of(workload.rrQuantum);
+        if (agingIntervals == null) agingIntervals = List.of(workload.agingInterval);
+
+        List<Config> grid = buildGrid(workload);
+        ProcessTable input = ProcessTable.of(workload.processes);
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            // One table per worker, reset by every run, over the shared input columns
+            ThreadLocal<ProcessTable> tables = ThreadLocal.withInitial(input::share);
+            List<CompletableFuture<Void>> runs = new ArrayList<>();
+            for (Config c : grid) {
+                runs.add(CompletableFuture.runAsync(() -> evaluate(c, c.algorithm.equals("ag") ? input.withQuantumScaled(c.agScale) : tables.get()), pool));
+            }
+            CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        grid.sort(Comparator.comparingDouble((Config c) -> c.averageWaiting)
+                            .thenComparingDouble(c -> c.averageTurnaround));
+        printRanking(grid);
+        System.out.printf("%nSweep complete: %d configurations over %d processes in %.3f s (%d threads)%n",
+                grid.size(), workload.processes.size(), seconds, threads);
+        return 0;
+    }
+
+    private List<Config> buildGrid(CPUScheduler.Workload workload) {
+        List<Config> grid = new ArrayList<>();
+        for (String a : algorithms) {
+            switch (a) {
+                case "sjf":
+                case "edf":
+                case "rm":
+                    for (int cs : contextSwitches) grid.add(new Config(a, cs, -1, -1, -1));
+                    break;
+                case "rr":
+                    for (int cs : contextSwitches)
+                        for (int q : rrQuantums) grid.add(new Config(a, cs, q, -1, -1));
+                    break;
+                case "priority":
+                    for (int cs : contextSwitches)
+                        for (int aging : agingIntervals) grid.add(new Config(a, cs, -1, aging, -1));
+                    break;
+                case "ag":
+                    for (int scale : agScales) grid.add(new Config(a, -1, -1, -1, scale));
+                    break;
+                case "mlfq":
+                case "cfs":
+                    // Default settings follow the RR quantum; ones the file sets do not
+                    boolean fixed = a.equals("mlfq") ? workload.setsMlfq() : workload.setsCfs();
+                    for (int cs : contextSwitches) {
+                        for (int q : fixed ? List.of(-1) : rrQuantums) {
+                            Config c = new Config(a, cs, q, -1, -1);
+                            c.tuning = workload.tuning(q < 0 ? workload.rrQuantum : q);
+                            grid.add(c);
+                        }
+                    }
+                    break;
+            }
+        }
+        return grid;
+    }
+
+    private static void evaluate(Config c, ProcessTable t) {
+        switch (c.algorithm) {
+            case "sjf": CPUScheduler.simulateSJF(t, c.contextSwitch); break;
+            case "rr": CPUScheduler.simulateRR(t, c.contextSwitch, c.rrQuantum); break;
+            case "priority": CPUScheduler.simulatePriority(t, c.contextSwitch, c.agingInterval); break;
+            case "ag": CPUScheduler.simulateAG(t); break;
+            case "mlfq": CPUScheduler.simulateMLFQ(t, c.contextSwitch, c.tuning.mlfq); break;
+            case "cfs": CPUScheduler.simulateCFS(t, c.contextSwitch, c.tuning.cfs); break;
+            case "edf": CPUScheduler.simulateEDF(t, c.contextSwitch); break;
+            case "rm": CPUScheduler.simulateRM(t, c.contextSwitch); break;
+        }
+        c.averageWaiting = t.averageWaiting();
+        c.averageTurnaround = t.averageTurnaround();
+    }
+
+    private static void printRanking(List<Config> ranked) {
+        String line = "+------+-----------+--------+--------+--------+----------+--------------+-----------------+";
+        System.out.println("\nParameter Sweep Ranking (by Average Waiting Time):");
+        System.out.println(line);
+        System.out.printf("| %-4s | %-9s | %-6s | %-6s | %-6s | %-8s | %-12s | %-15s |%n",
+                "Rank", "Algorithm", "CS", "RR Q", "Aging", "AG Scale", "Avg Waiting", "Avg Turnaround");
+        System.out.println(line);
+        int rank = 1;
+        for (Config c : ranked) {
+            System.out.printf("| %-4d | %-9s | %-6s | %-6s | %-6s | %-8s | %-12.2f | %-15.2f |%n",
+                    rank++, c.algorithm.toUpperCase(), cell(c.contextSwitch), cell(c.rrQuantum),
+                    cell(c.agingInterval), c.agScale < 0 ? "-" : c.agScale + "%",
+                    c.averageWaiting, c.averageTurnaround);
+        }
+        System.out.println(line);
+    }
+
+    private static String cell(int value) {
+        return value < 0 ? "-" : String.valueOf(value);
+    }
+}
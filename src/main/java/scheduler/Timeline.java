@@ -0,0 +1,110 @@
+package scheduler;
+
+import java.io.PrintStream;
+import java.util.*;
+
+// ==========================================
+// Run-Length Encoded Timeline
+// ==========================================
+// One segment per stretch of CPU time: the row that ran (or CONTEXT_SWITCH)
+// with its start and end. Back-to-back stretches of the same row are merged,
+// so recording is O(1) per dispatch no matter how long the burst is. Idle
+// time is simply the gap between two segments.
+class Timeline {
+
+    static final int CONTEXT_SWITCH = -1;
+
+    private int[] row = new int[16];
+    private int[] start = new int[16];
+    private int[] end = new int[16];
+    private int size;
+    private boolean recording = true;
+
+    void clear() {
+        size = 0;
+    }
+
+    // A streaming run has no use for the segments, which would grow without bound.
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    boolean recording() {
+        return recording;
+    }
+
+    void run(int r, int from, int to) {
+        append(r, from, to);
+    }
+
+    void contextSwitch(int from, int to) {
+        append(CONTEXT_SWITCH, from, to);
+    }
+
+    private void append(int r, int from, int to) {
+        if (to <= from || !recording) return;
+        if (size > 0 && row[size - 1] == r && end[size - 1] == from) {
+            end[size - 1] = to;
+            return;
+        }
+        if (size == row.length) {
+            row = Arrays.copyOf(row, size * 2);
+            start = Arrays.copyOf(start, size * 2);
+            end = Arrays.copyOf(end, size * 2);
+        }
+        row[size] = r;
+        start[size] = from;
+        end[size++] = to;
+    }
+
+    public int size() { return size; }
+    public int row(int i) { return row[i]; }
+    public int start(int i) { return start[i]; }
+    public int end(int i) { return end[i]; }
+
+    // Names of the processes in the order they held the CPU, ignoring context
+    // switches and idle gaps and collapsing consecutive repeats.
+    public List<String> executionOrder(String[] names) {
+        List<String> order = new ArrayList<>();
+        int last = CONTEXT_SWITCH;
+        for (int i = 0; i < size; i++) {
+            if (row[i] == CONTEXT_SWITCH || row[i] == last) continue;
+            order.add(names[row[i]]);
+            last = row[i];
+        }
+        return order;
+    }
+
+    // Textbook Gantt chart, wrapped every `perLine` segments. Idle gaps show as "--".
+    public void printGantt(String[] names, int perLine, PrintStream out) {
+        List<String> labels = new ArrayList<>();
+        List<Integer> marks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && start[i] > end[i - 1]) {
+                labels.add("--");
+                marks.add(end[i - 1]);
+            }
+            labels.add(row[i] == CONTEXT_SWITCH ? "CS" : names[row[i]]);
+            marks.add(start[i]);
+        }
+        if (size > 0) marks.add(end[size - 1]);
+
+        for (int from = 0; from < labels.size(); from += perLine) {
+            int to = Math.min(labels.size(), from + perLine);
+            StringBuilder border = new StringBuilder("+");
+            StringBuilder cells = new StringBuilder("|");
+            StringBuilder axis = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                int width = Math.max(labels.get(i).length(), String.valueOf(marks.get(i)).length()) + 2;
+                border.append("-".repeat(width)).append('+');
+                cells.append(String.format(" %-" + (width - 1) + "s|", labels.get(i)));
+                axis.append(String.format("%-" + (width + 1) + "s", marks.get(i)));
+            }
+            axis.append(marks.get(to));
+            out.println(border);
+            out.println(cells);
+            out.println(border);
+            out.println(axis);
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package scheduler;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// ==========================================
+// Binary Schedule Trace
+// ==========================================
+// java -jar cpu-scheduler.jar --trace-query <file> [--at T] [--core C] [--process NAME] [--events from:to]
+//
+// Every dispatch of a run as fixed-width 16-byte records, written through a
+// memory-mapped file so a trace can be far larger than the heap. Layout (all
+// big-endian):
+//   header     64 bytes: magic, version, cores, record count, and where the
+//              regions below start
+//   records    time (int), process id (int), core (short), event (byte), one
+//              spare byte, and the index of the same process's next record
+//              (int, -1 for its last)
+//   processes  per process id, in arrival order: its ARRIVE record (int),
+//              burst (int) and the offset of its name (long)
+//   names      the names, UTF-8, back to back (up to 2 GB)
+//   cores      per core: its last record, then a checkpoint (time, record)
+//              at every CHECKPOINT-th record on that core
+// Process ids count arrivals from 0, so they stay unique in a streaming run
+// that recycles table rows. Events are ARRIVE and WAKE (back from I/O), both
+// on core -1, RUN and SWITCH, which start a stretch on a core, and PREEMPT,
+// COMPLETE, BLOCK (off to I/O) and IDLE, which end one; back-to-back
+// stretches of the same process are merged like the Timeline's. A core's
+// records are in time order, so "what ran at t" is a binary search over that
+// core's checkpoints and a short scan, and a process's slices follow its next
+// links; the reader maps the file and only keeps the checkpoints on the heap.
+final class Trace {
+
+    static final byte ARRIVE = 0, RUN = 1, PREEMPT = 2, COMPLETE = 3, SWITCH = 4, IDLE = 5, BLOCK = 6, WAKE = 7;
+    static final String[] EVENTS = {"ARRIVE", "RUN", "PREEMPT", "COMPLETE", "SWITCH", "IDLE", "BLOCK", "WAKE"};
+
+    // What runningAt() returns when no process holds the core
+    static final int NOTHING = -1, SWITCHING = -2;
+
+    private static final long MAGIC = 0x4350555452414345L; // "CPUTRACE"
+    private static final int VERSION = 2; // 1 had no BLOCK or WAKE
+    private static final int HEADER = 64, RECORD = 16, ENTRY = 16;
+    private static final int CHECKPOINT = 256;
+
+    // Records are mapped in windows of 2^WINDOW_BITS, since one mapping
+    // cannot exceed 2 GB; nothing ever straddles two windows
+    private static final int WINDOW_BITS = 22;
+    private static final long WINDOW_BYTES = (long) RECORD << WINDOW_BITS;
+
+    private Trace() {}
+
+    // ==========================================
+    // Writer
+    // ==========================================
+    // Fed by the table (arrivals) and the schedulers (everything else). Each
+    // core's stretch is held open until the next event on that core shows
+    // whether it continues, then closed with one record.
+    static final class Writer implements Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private final List<MappedByteBuffer> windows = new ArrayList<>();
+        private long records;
+
+        // The open stretch on each core: RUN, SWITCH or -1
+        private final int[] openType, openRow, openEnd;
+        private final int[] coreRecords, coreLast;
+        private final int[][] checkpoints;
+        private final int[] checkpointCount;
+
+        // By table row, which a streaming run recycles: its process id, last
+        // record and the core it has an open RUN on (-1 if none)
+        private int[] pid = new int[1024];
+        private int[] last = new int[1024];
+        private int[] runningOn = new int[1024];
+        private int processes;
+
+        // Written as processes arrive, appended to the trace on close()
+        private final Path processFile, nameFile;
+        private final DataOutputStream processOut, nameOut;
+        private long namesSize;
+
+        Writer(Path file, int cores) throws IOException {
+            this.file = file;
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            openType = new int[cores];
+            openRow = new int[cores];
+            openEnd = new int[cores];
+            coreRecords = new int[cores];
+            coreLast = new int[cores];
+            checkpoints = new int[cores][16];
+            checkpointCount = new int[cores];
+            Arrays.fill(openType, -1);
+            Arrays.fill(coreLast, -1);
+            Path dir = file.toAbsolutePath().getParent();
+            processFile = Files.createTempFile(dir, ".trace-processes", ".tmp");
+            nameFile = Files.createTempFile(dir, ".trace-names", ".tmp");
+            processOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(processFile), 1 << 16));
+            nameOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(nameFile), 1 << 16));
+        }
+
+        void arrive(ProcessTable t, int row) {
+            if (row >= pid.length) {
+                int n = Math.max(row + 1, 2 * pid.length);
+                pid = Arrays.copyOf(pid, n);
+                last = Arrays.copyOf(last, n);
+                runningOn = Arrays.copyOf(runningOn, n);
+            }
+            pid[row] = processes++;
+            last[row] = -1;
+            runningOn[row] = -1;
+            int record = append(t.arrival[row], ARRIVE, row, -1);
+            byte[] name = t.name[row].getBytes(StandardCharsets.UTF_8);
+            try {
+                processOut.writeInt(record);
+                processOut.writeInt(t.burst[row]);
+                processOut.writeLong(namesSize);
+                nameOut.write(name);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            namesSize += name.length;
+        }
+
+        void run(int core, int row, int from, int to) {
+            if (openType[core] == RUN && openRow[core] == row && openEnd[core] == from) {
+                openEnd[core] = to;
+                return;
+            }
+            close(core, from);
+            // Stolen by this core while still open on the one it left
+            if (runningOn[row] >= 0) close(runningOn[row], from);
+            append(from, RUN, row, core);
+            open(core, RUN, row, to);
+            runningOn[row] = core;
+        }
+
+        void contextSwitch(int core, int from, int to) {
+            if (openType[core] == SWITCH && openEnd[core] == from) {
+                openEnd[core] = to;
+                return;
+            }
+            close(core, from);
+            append(from, SWITCH, -1, core);
+            open(core, SWITCH, -1, to);
+        }
+
+        void complete(int core, int row, int time) {
+            end(core, row, time, COMPLETE);
+        }
+
+        void block(int core, int row, int time) {
+            end(core, row, time, BLOCK);
+        }
+
+        void wake(int row, int time) {
+            append(time, WAKE, row, -1);
+        }
+
+        private void end(int core, int row, int time, byte event) {
+            if (openType[core] == RUN && openRow[core] == row) openType[core] = -1;
+            runningOn[row] = -1;
+            append(time, event, row, core);
+        }
+
+        private void open(int core, int type, int row, int end) {
+            openType[core] = type;
+            openRow[core] = row;
+            openEnd[core] = end;
+        }
+
+        // Ends the core's open stretch before something starting at `next`
+        private void close(int core, int next) {
+            if (openType[core] == RUN) {
+                append(openEnd[core], PREEMPT, openRow[core], core);
+                runningOn[openRow[core]] = -1;
+            } else if (openType[core] == SWITCH && openEnd[core] < next) append(openEnd[core], IDLE, -1, core);
+            openType[core] = -1;
+        }
+
+        private int append(int time, int type, int row, int core) {
+            if (records == Integer.MAX_VALUE) throw new IllegalStateException("trace " + file + " is full");
+            int index = (int) records++;
+            ByteBuffer w = window(index);
+            int at = (index & ((1 << WINDOW_BITS) - 1)) * RECORD;
+            w.putInt(at, time);
+            w.putInt(at + 4, row < 0 ? -1 : pid[row]);
+            w.putShort(at + 8, (short) core);
+            w.put(at + 10, (byte) type);
+            w.put(at + 11, (byte) 0);
+            w.putInt(at + 12, -1);
+            if (row >= 0) {
+                if (last[row] >= 0) {
+                    int previous = last[row];
+                    window(previous).putInt((previous & ((1 << WINDOW_BITS) - 1)) * RECORD + 12, index);
+                }
+                last[row] = index;
+            }
+            if (core >= 0) {
+                if (coreRecords[core]++ % CHECKPOINT == 0) checkpoint(core, time, index);
+                coreLast[core] = index;
+            }
+            return index;
+        }
+
+        private void checkpoint(int core, int time, int index) {
+            int n = checkpointCount[core];
+            if (2 * n + 2 > checkpoints[core].length) checkpoints[core] = Arrays.copyOf(checkpoints[core], 4 * n + 4);
+            checkpoints[core][2 * n] = time;
+            checkpoints[core][2 * n + 1] = index;
+            checkpointCount[core] = n + 1;
+        }
+
+        private ByteBuffer window(int index) {
+            int k = index >>> WINDOW_BITS;
+            while (windows.size() <= k) {
+                try {
+                    windows.add(channel.map(FileChannel.MapMode.READ_WRITE, HEADER + windows.size() * WINDOW_BYTES, WINDOW_BYTES));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return windows.get(k);
+        }
+
+        // Ends any stretch still open, appends the process, name and core
+        // regions after the records and writes the header.
+        @Override
+        public void close() throws IOException {
+            try {
+                for (int core = 0; core < openType.length; core++) close(core, Integer.MAX_VALUE);
+                processOut.close();
+                nameOut.close();
+                long processesOffset = HEADER + records * RECORD;
+                long namesOffset = processesOffset + (long) processes * ENTRY;
+                long coresOffset = namesOffset + namesSize;
+                copy(processFile, processesOffset);
+                copy(nameFile, namesOffset);
+
+                ByteBuffer cores = ByteBuffer.allocate(coresSize());
+                for (int core = 0; core < openType.length; core++) {
+                    cores.putInt(coreLast[core]).putInt(checkpointCount[core]);
+                    cores.asIntBuffer().put(checkpoints[core], 0, 2 * checkpointCount[core]);
+                    cores.position(cores.position() + 8 * checkpointCount[core]);
+                }
+                cores.flip();
+                write(cores, coresOffset);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER);
+                header.putLong(MAGIC).putInt(VERSION).putInt(openType.length).putLong(records).putLong(processes)
+                      .putLong(processesOffset).putLong(namesOffset).putLong(coresOffset);
+                header.flip();
+                write(header, 0);
+                channel.truncate(coresOffset + cores.capacity());
+            } finally {
+                channel.close();
+                Files.deleteIfExists(processFile);
+                Files.deleteIfExists(nameFile);
+            }
+        }
+
+        private int coresSize() {
+            int size = 0;
+            for (int n : checkpointCount) size += 8 + 8 * n;
+            return size;
+        }
+
+        private void copy(Path from, long position) throws IOException {
+            try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ)) {
+                long size = in.size();
+                for (long done = 0; done < size; ) done += in.transferTo(done, size - done, channel.position(position + done));
+            }
+        }
+
+        private void write(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) position += channel.write(buffer, position);
+        }
+    }
+
+    // ==========================================
+    // Reader
+    // ==========================================
+    static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final int cores;
+        private final long records;
+        private final int processes;
+        private final MappedByteBuffer[] windows;
+        private final MappedByteBuffer entries, names;
+        private final int[] coreLast;
+        private final int[][] checkpoints; // per core: time, record, time, record...
+
+        Reader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {}
+            header.flip();
+            if (header.remaining() < HEADER || header.getLong() != MAGIC) {
+                channel.close();
+                throw new IOException(file + ": not a schedule trace");
+            }
+            int version = header.getInt();
+            if (version < 1 || version > VERSION) {
+                channel.close();
+                throw new IOException(file + ": unsupported trace version " + version);
+            }
+            cores = header.getInt();
+            records = header.getLong();
+            processes = (int) header.getLong();
+            long processesOffset = header.getLong();
+            long namesOffset = header.getLong();
+            long coresOffset = header.getLong();
+
+            windows = new MappedByteBuffer[(int) ((records + (1L << WINDOW_BITS) - 1) >>> WINDOW_BITS)];
+            entries = channel.map(FileChannel.MapMode.READ_ONLY, processesOffset, (long) processes * ENTRY);
+            names = channel.map(FileChannel.MapMode.READ_ONLY, namesOffset, coresOffset - namesOffset);
+
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, coresOffset, channel.size() - coresOffset);
+            coreLast = new int[cores];
+            checkpoints = new int[cores][];
+            for (int core = 0; core < cores; core++) {
+                coreLast[core] = index.getInt();
+                checkpoints[core] = new int[2 * index.getInt()];
+                index.asIntBuffer().get(checkpoints[core]);
+                index.position(index.position() + 4 * checkpoints[core].length);
+            }
+        }
+
+        long records() { return records; }
+        int processes() { return processes; }
+        int cores() { return cores; }
+
+        int time(long i) { return record(i).getInt(offset(i)); }
+        int pid(long i) { return record(i).getInt(offset(i) + 4); }
+        int core(long i) { return record(i).getShort(offset(i) + 8); }
+        int event(long i) { return record(i).get(offset(i) + 10); }
+        int next(long i) { return record(i).getInt(offset(i) + 12); }
+
+        private static int offset(long i) { return (int) (i & ((1 << WINDOW_BITS) - 1)) * RECORD; }
+
+        private ByteBuffer record(long i) {
+            int k = (int) (i >>> WINDOW_BITS);
+            if (windows[k] == null) {
+                long size = Math.min(WINDOW_BYTES, (records - ((long) k << WINDOW_BITS)) * RECORD);
+                try {
+                    windows[k] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + k * WINDOW_BYTES, size);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return windows[k];
+        }
+
+        int arrival(int pid) { return time(entries.getInt(pid * ENTRY)); }
+        int burst(int pid) { return entries.getInt(pid * ENTRY + 4); }
+
+        String name(int pid) {
+            byte[] bytes = new byte[nameEnd(pid) - nameStart(pid)];
+            names.get(nameStart(pid), bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int nameStart(int pid) { return (int) entries.getLong(pid * ENTRY + 8); }
+        private int nameEnd(int pid) { return pid + 1 < processes ? nameStart(pid + 1) : names.capacity(); }
+
+        // First process with this name, -1 if none; a scan comparing bytes in place
+        int pid(String name) {
+            byte[] wanted = name.getBytes(StandardCharsets.UTF_8);
+            for (int p = 0; p < processes; p++) {
+                int from = nameStart(p);
+                if (nameEnd(p) - from != wanted.length) continue;
+                int i = 0;
+                while (i < wanted.length && names.get(from + i) == wanted[i]) i++;
+                if (i == wanted.length) return p;
+            }
+            return -1;
+        }
+
+        // Who held `core` over [t, t + 1): a process id, SWITCHING or NOTHING
+        int runningAt(int core, int t) {
+            int[] cp = checkpoints[core];
+            int lo = 0, hi = cp.length / 2 - 1, found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cp[2 * mid] <= t) { found = mid; lo = mid + 1; } else hi = mid - 1;
+            }
+            if (found < 0) return NOTHING;
+            long at = cp[2 * found + 1];
+            for (long i = at + 1; i <= coreLast[core]; i++) {
+                if (core(i) != core) continue;
+                if (time(i) > t) break;
+                at = i;
+            }
+            switch (event(at)) {
+                case RUN: return pid(at);
+                case SWITCH: return SWITCHING;
+                default: return NOTHING;
+            }
+        }
+
+        // The process's stretches on a CPU as {start, end, core}, in order
+        List<int[]> slices(int pid) {
+            List<int[]> slices = new ArrayList<>();
+            int start = -1;
+            for (long i = entries.getInt(pid * ENTRY); i >= 0; i = next(i)) {
+                int event = event(i);
+                if (event == RUN) start = time(i);
+                else if ((event == PREEMPT || event == COMPLETE || event == BLOCK) && start >= 0) {
+                    slices.add(new int[] {start, time(i), core(i)});
+                    start = -1;
+                }
+            }
+            return slices;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static int run(String[] args) {
+        Path file = null;
+        Integer at = null, core = null;
+        String process = null;
+        List<Integer> events = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException(args[i] + " expects a value");
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--trace-query": file = Paths.get(value); break;
+                    case "--at": at = SweepRunner.parseRange(args[i], value, 0).get(0); break;
+                    case "--core": core = SweepRunner.parseRange(args[i], value, 0).get(0); break;
+                    case "--process": process = value; break;
+                    case "--events":
+                        String[] range = value.split(":");
+                        if (range.length != 2) throw new IllegalArgumentException("--events expects from:to");
+                        events = List.of(SweepRunner.parseRange(args[i], range[0], 0).get(0),
+                                         SweepRunner.parseRange(args[i], range[1], 0).get(0));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+                }
+            }
+            if (file == null) throw new IllegalArgumentException("--trace-query expects a trace file");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --trace-query <file> [--at T] [--core C] [--process NAME] [--events from:to]");
+            return 2;
+        }
+
+        try (Reader r = new Reader(file)) {
+            System.out.println("Trace: " + file.getFileName() + " (" + r.records() + " records, " + r.processes()
+                    + " processes, " + r.cores() + (r.cores() == 1 ? " core)" : " cores)"));
+            if (core != null && core >= r.cores()) {
+                System.out.println("Error: the trace has no core " + core);
+                return 1;
+            }
+            if (at != null) {
+                for (int c = 0; c < r.cores(); c++) {
+                    if (core != null && c != core) continue;
+                    int p = r.runningAt(c, at);
+                    String who = p == SWITCHING ? "(context switch)" : p == NOTHING ? "(idle)" : r.name(p);
+                    System.out.println("t=" + at + " core " + c + ": " + who);
+                }
+            }
+            if (process != null) {
+                int p = r.pid(process);
+                if (p < 0) {
+                    System.out.println("Error: no process named " + process);
+                    return 1;
+                }
+                printSlices(r, p);
+            }
+            if (events != null) printEvents(r, events.get(0), events.get(1), core);
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            return 1;
+        }
+        return 0;
+    }
+
+    private static void printSlices(Reader r, int p) {
+        List<int[]> slices = r.slices(p);
+        System.out.println("\n" + r.name(p) + ": arrival " + r.arrival(p) + ", burst " + r.burst(p) + ", " + slices.size() + " slices");
+        String line = "+------------+------------+------+";
+        System.out.println(line);
+        System.out.printf("| %-10s | %-10s | %-4s |%n", "Start", "End", "Core");
+        System.out.println(line);
+        for (int[] s : slices) System.out.printf("| %-10d | %-10d | %-4d |%n", s[0], s[1], s[2]);
+        System.out.println(line);
+    }
+
+    // Replays the records with from <= time <= to in the order they were written
+    private static void printEvents(Reader r, int from, int to, Integer core) {
+        String line = "+------------+------+----------+------------------+";
+        System.out.println(line);
+        System.out.printf("| %-10s | %-4s | %-8s | %-16s |%n", "Time", "Core", "Event", "Process");
+        System.out.println(line);
+        for (long i = 0; i < r.records(); i++) {
+            int time = r.time(i);
+            if (time < from || time > to || (core != null && r.core(i) != core)) continue;
+            int pid = r.pid(i);
+            System.out.printf("| %-10d | %-4s | %-8s | %-16s |%n", time, r.core(i) < 0 ? "-" : String.valueOf(r.core(i)),
+                    EVENTS[r.event(i)], pid < 0 ? "-" : r.name(pid));
+        }
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,305 @@
+package scheduler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// ==========================================
+// Synthetic Workload Generator
+// ==========================================
+// java -jar cpu-scheduler.jar --generate N [--seed S] [--mean-gap G] [--burst D] [--priority D]
+//                           [--quantum D|none] [--context-switch C] [--rr-quantum Q] [--aging A]
+//                           [--algorithms sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--out <file>] [--trace <prefix>]
+//
+// N processes with Poisson arrivals (exponential gaps averaging G) and burst
+// lengths, priorities and AG quanta drawn from the distributions D:
+//   const:v | uniform:lo:hi | exp:mean | pareto:shape:scale | lognormal:mu:sigma
+// Draws are rounded up to whole time units of at least 1. A given seed always
+// yields the same workload, so it is regenerated for every algorithm instead
+// of being kept around. With --out the workload is written in the usual JSON
+// format; otherwise it is streamed straight into the schedulers through a
+// streaming ProcessTable, holding only the processes that are in the system.
+// --trace records each algorithm's run as a binary Trace in
+// <prefix>.<algorithm>.trace, which grows with the run but not the heap.
+class WorkloadGenerator implements ProcessTable.Source {
+
+    private final long count;
+    private final long seed;
+    private final double meanGap;
+    private final Distribution burst, priority, quantum; // quantum is null for "none"
+
+    private SplittableRandom random;
+    private long produced;
+    private double clock;
+
+    WorkloadGenerator(long count, long seed, double meanGap, Distribution burst, Distribution priority, Distribution quantum) {
+        this.count = count;
+        this.seed = seed;
+        this.meanGap = meanGap;
+        this.burst = burst;
+        this.priority = priority;
+        this.quantum = quantum;
+        rewind();
+    }
+
+    @Override
+    public void rewind() {
+        random = new SplittableRandom(seed);
+        produced = 0;
+        clock = 0;
+    }
+
+    // The first process arrives at 0, every later one an exponential gap after its predecessor.
+    @Override
+    public boolean next(CPUScheduler.Process into) {
+        if (produced == count) return false;
+        if (produced > 0) clock += -meanGap * Math.log(1.0 - random.nextDouble());
+        if (clock > Integer.MAX_VALUE) {
+            throw new IllegalStateException("arrival times exceed the simulator's int clock after " + produced + " processes");
+        }
+        into.name = "P" + (++produced);
+        into.arrivalTime = (int) clock;
+        into.burstTime = burst.sample(random);
+        into.priority = priority.sample(random);
+        into.quantum = quantum == null ? 0 : quantum.sample(random);
+        return true;
+    }
+
+    // ==========================================
+    // Distributions
+    // ==========================================
+    static final class Distribution {
+        private final String kind;
+        private final double a, b;
+
+        private Distribution(String kind, double a, double b) {
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+        }
+
+        static Distribution parse(String option, String spec) {
+            String[] parts = spec.toLowerCase().split(":");
+            int arity = parts[0].equals("const") || parts[0].equals("exp") ? 1 : 2;
+            if (!List.of("const", "uniform", "exp", "pareto", "lognormal").contains(parts[0])) {
+                throw new IllegalArgumentException(option + ": unknown distribution '" + parts[0] + "'");
+            }
+            if (parts.length != arity + 1) {
+                throw new IllegalArgumentException(option + ": '" + parts[0] + "' takes " + arity + " parameter(s)");
+            }
+            double a, b;
+            try {
+                a = Double.parseDouble(parts[1]);
+                b = arity == 2 ? Double.parseDouble(parts[2]) : 0;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + ": cannot parse '" + spec + "'");
+            }
+            boolean valid;
+            switch (parts[0]) {
+                case "uniform": valid = a >= 1 && b >= a; break;
+                case "pareto": valid = a > 0 && b > 0; break;
+                case "lognormal": valid = b >= 0; break;
+                default: valid = a > 0;
+            }
+            if (!valid) throw new IllegalArgumentException(option + ": invalid parameters in '" + spec + "'");
+            return new Distribution(parts[0], a, b);
+        }
+
+        int sample(SplittableRandom random) {
+            double x;
+            switch (kind) {
+                case "const": x = a; break;
+                case "uniform": return random.nextInt((int) a, (int) b + 1);
+                case "exp": x = -a * Math.log(1.0 - random.nextDouble()); break;
+                case "pareto": x = b / Math.pow(1.0 - random.nextDouble(), 1.0 / a); break;
+                default: x = Math.exp(a + b * random.nextGaussian()); break;
+            }
+            return (int) Math.max(1, Math.min(Math.ceil(x), Integer.MAX_VALUE));
+        }
+
+        @Override
+        public String toString() {
+            boolean oneParameter = kind.equals("const") || kind.equals("exp");
+            return kind + ":" + format(a) + (oneParameter ? "" : ":" + format(b));
+        }
+
+        private static String format(double v) {
+            return v == Math.rint(v) ? String.valueOf((long) v) : String.valueOf(v);
+        }
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static int run(String[] args) {
+        Options o = new Options();
+        try {
+            o.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -jar cpu-scheduler.jar --generate N [--seed S] [--mean-gap G] [--burst D] [--priority D] [--quantum D|none] [--context-switch C] [--rr-quantum Q] [--aging A] [--algorithms sjf,rr,priority,ag,mlfq,cfs,edf,rm] [--out <file>] [--trace <prefix>]");
+            System.out.println("       D = const:v | uniform:lo:hi | exp:mean | pareto:shape:scale | lognormal:mu:sigma");
+            return 2;
+        }
+        WorkloadGenerator generator = new WorkloadGenerator(o.count, o.seed, o.meanGap, o.burst, o.priority, o.quantum);
+        System.out.println("Workload: " + o.count + " processes, seed " + o.seed + ", mean gap " + o.meanGap
+                + ", burst " + o.burst + ", priority " + o.priority + ", quantum " + (o.quantum == null ? "none" : o.quantum));
+        try {
+            if (o.out != null) {
+                long start = System.nanoTime();
+                generator.writeJson(o.out, o.contextSwitch, o.rrQuantum, o.agingInterval);
+                System.out.printf("Wrote %s in %.3f s%n", o.out, (System.nanoTime() - start) / 1e9);
+            } else {
+                simulate(generator, o);
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
+            return 1;
+        } catch (UncheckedIOException e) {
+            System.out.println("Error: " + e.getCause().getMessage());
+            return 1;
+        }
+        return 0;
+    }
+
+    // Generator settings; ClusterSimulator reuses them for its per-node workloads
+    static final class Options {
+        long count = -1;
+        long seed = 1;
+        double meanGap = 10;
+        Distribution burst = Distribution.parse("--burst", "lognormal:1.8:0.8");
+        Distribution priority = Distribution.parse("--priority", "uniform:1:10");
+        Distribution quantum = Distribution.parse("--quantum", "uniform:2:8");
+        int contextSwitch = 1, rrQuantum = 4, agingInterval = 5;
+        List<String> algorithms = BatchRunner.ALGORITHMS;
+        Path out;
+        String tracePrefix;
+
+        void parse(String[] args) {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException(args[i] + " expects a value");
+                if (!accept(args[i], args[i + 1])) throw new IllegalArgumentException("unknown option '" + args[i] + "'");
+            }
+            if (count < 0) throw new IllegalArgumentException("--generate expects a process count");
+            if (out == null && algorithms.contains("ag") && quantum == null) {
+                throw new IllegalArgumentException("AG needs a --quantum distribution");
+            }
+        }
+
+        // Takes one option and its value; false if it is not a generator option.
+        boolean accept(String option, String value) {
+            switch (option) {
+                case "--generate": count = parseLong(option, value, 1); break;
+                case "--seed": seed = parseLong(option, value, Long.MIN_VALUE); break;
+                case "--mean-gap":
+                    try {
+                        meanGap = Double.parseDouble(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--mean-gap: cannot parse '" + value + "'");
+                    }
+                    if (!(meanGap >= 0)) throw new IllegalArgumentException("--mean-gap must be at least 0");
+                    break;
+                case "--burst": burst = Distribution.parse(option, value); break;
+                case "--priority": priority = Distribution.parse(option, value); break;
+                case "--quantum": quantum = value.equalsIgnoreCase("none") ? null : Distribution.parse(option, value); break;
+                case "--context-switch": contextSwitch = SweepRunner.parseRange(option, value, 0).get(0); break;
+                case "--rr-quantum": rrQuantum = SweepRunner.parseRange(option, value, 1).get(0); break;
+                case "--aging": agingInterval = SweepRunner.parseRange(option, value, 0).get(0); break;
+                case "--algorithms":
+                    algorithms = Arrays.asList(value.toLowerCase().split(","));
+                    for (String a : algorithms) {
+                        if (!BatchRunner.ALGORITHMS.contains(a)) throw new IllegalArgumentException("unknown algorithm '" + a + "'");
+                    }
+                    break;
+                case "--out": out = Paths.get(value); break;
+                case "--trace": tracePrefix = value; break;
+                default:
+                    return false;
+            }
+            return true;
+        }
+
+        private static long parseLong(String option, String value, long min) {
+            long v;
+            try {
+                v = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + ": cannot parse '" + value + "'");
+            }
+            if (v < min) throw new IllegalArgumentException(option + " must be at least " + min);
+            return v;
+        }
+    }
+
+    // One streaming run per algorithm over the same regenerated workload.
+    private static void simulate(WorkloadGenerator generator, Options o) {
+        ProcessTable table = ProcessTable.streaming(generator);
+        String line = "+-----------+-------------+-------------+----------------+----------------+-------------+---------------+-----------+";
+        System.out.println("Config: [CS: " + o.contextSwitch + "] [RR: " + o.rrQuantum + "] [Aging: " + o.agingInterval + "]");
+        System.out.println(line);
+        System.out.printf("| %-9s | %-11s | %-11s | %-14s | %-14s | %-11s | %-13s | %-9s |%n",
+                "Algorithm", "Avg Waiting", "P99 Waiting", "Avg Turnaround", "P99 Turnaround", "Utilisation", "Max In System", "Wall (s)");
+        System.out.println(line);
+        for (String a : o.algorithms) {
+            long start = System.nanoTime();
+            if (o.tracePrefix == null) {
+                CPUScheduler.simulate(a, table, o.contextSwitch, o.rrQuantum, o.agingInterval);
+            } else {
+                BatchRunner.traced(table, Paths.get(o.tracePrefix + "." + a + ".trace"), 1,
+                        () -> CPUScheduler.simulate(a, table, o.contextSwitch, o.rrQuantum, o.agingInterval));
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            RunMetrics m = table.metrics();
+            System.out.printf("| %-9s | %-11.2f | %-11d | %-14.2f | %-14d | %-11s | %-13d | %-9.3f |%n",
+                    a.toUpperCase(), table.averageWaiting(), m.waiting.percentile(99), table.averageTurnaround(),
+                    m.turnaround.percentile(99), String.format("%.2f%%", 100 * m.utilisation()), table.maxLive(), seconds);
+        }
+        System.out.println(line);
+    }
+
+    // ==========================================
+    // JSON Output
+    // ==========================================
+    // Same layout as the hand-written test files, one process per line,
+    // written as it is generated.
+    void writeJson(Path file, int contextSwitch, int rrQuantum, int agingInterval) throws IOException {
+        writeJson(this, "Synthetic workload: " + count + " processes, seed " + seed, quantum != null,
+                file, contextSwitch, rrQuantum, agingInterval);
+    }
+
+    // Writes every process of `source`, from the start, in that layout; AG
+    // quanta only if `withQuantum`. KernelTraceImporter writes through here too.
+    static void writeJson(ProcessTable.Source source, String title, boolean withQuantum, Path file,
+                          int contextSwitch, int rrQuantum, int agingInterval) throws IOException {
+        source.rewind();
+        CPUScheduler.Process p = new CPUScheduler.Process("", 0, 0, 0, 0);
+        StringBuilder sb = new StringBuilder(128);
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("{\n");
+            sb.append("    \"name\": ");
+            ResultWriter.quote(sb, title);
+            w.append(sb).write(",\n");
+            w.write("    \"input\": {\n");
+            w.write("      \"contextSwitch\": " + contextSwitch + ",\n");
+            w.write("      \"rrQuantum\": " + rrQuantum + ",\n");
+            w.write("      \"agingInterval\": " + agingInterval + ",\n");
+            w.write("      \"processes\": [\n");
+            boolean first = true;
+            while (source.next(p)) {
+                sb.setLength(0);
+                if (!first) sb.append(",\n");
+                first = false;
+                sb.append("        {\"name\": ");
+                ResultWriter.quote(sb, p.name);
+                sb.append(", \"arrival\": ").append(p.arrivalTime)
+                  .append(", \"burst\": ").append(p.burstTime)
+                  .append(", \"priority\": ").append(p.priority);
+                if (withQuantum) sb.append(", \"quantum\": ").append(p.quantum);
+                sb.append('}');
+                w.append(sb);
+            }
+            w.write("\n      ]\n    }\n}\n");
+        }
+    }
+}
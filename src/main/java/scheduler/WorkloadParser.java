@@ -0,0 +1,608 @@
+package scheduler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// ==========================================
+// Streaming Workload Loader
+// ==========================================
+// Reads a workload JSON file in a single pass through a fixed-size buffer.
+// The config keys (contextSwitch, rrQuantum, agingInterval, mlfqQuanta,
+// mlfqBoost, cfsLatency, cfsMinGranularity), the first "processes" array and
+// the first "expectedOutput" object are picked up wherever they appear;
+// every other value is skipped without being materialised. Malformed input
+// fails with the line and column of the offending character.
+// A process arrives at 0 or later and gives either its "burst" (at least 1)
+// or its "bursts", CPU and I/O in turn.
+// One with a "period" is a periodic task: once the file is read it is
+// replaced by a job every period from its arrival up to "horizon" (by
+// default one hyperperiod past the last task's first job), each due
+// "deadline" (by default the period) after its release.
+class WorkloadParser {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Keys the loader understands; anything else is skipped
+    private static final String[] KEYS = {
+        "name", "arrival", "burst", "priority", "quantum",
+        "contextSwitch", "rrQuantum", "agingInterval", "processes",
+        "expectedOutput", "executionOrder", "processResults", "waitingTime", "turnaroundTime",
+        "quantumHistory", "averageWaitingTime", "averageTurnaroundTime", "node", "mlfqQuanta", "mlfqBoost",
+        "cfsLatency", "cfsMinGranularity", "bursts", "deadline", "period", "horizon"
+    };
+    private static final int NAME = 0, ARRIVAL = 1, BURST = 2, PRIORITY = 3, QUANTUM = 4,
+            CONTEXT_SWITCH = 5, RR_QUANTUM = 6, AGING_INTERVAL = 7, PROCESSES = 8,
+            EXPECTED_OUTPUT = 9, EXECUTION_ORDER = 10, PROCESS_RESULTS = 11, WAITING_TIME = 12,
+            TURNAROUND_TIME = 13, QUANTUM_HISTORY = 14, AVERAGE_WAITING_TIME = 15, AVERAGE_TURNAROUND_TIME = 16,
+            NODE = 17, MLFQ_QUANTA = 18, MLFQ_BOOST = 19, CFS_LATENCY = 20, CFS_MIN_GRANULARITY = 21,
+            BURSTS = 22, DEADLINE = 23, PERIOD = 24, HORIZON = 25;
+
+    // Bounds on what periodic tasks may expand to
+    private static final long MAX_HYPERPERIOD = 1 << 24;
+    private static final int MAX_JOBS = 1 << 22;
+
+    private final Reader in;
+    private final String source;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+
+    // Position of the next unread character (1-based)
+    private int line = 1;
+    private int column = 1;
+
+    private final StringBuilder text = new StringBuilder();
+    private final CPUScheduler.Workload workload = new CPUScheduler.Workload();
+    private boolean seenContextSwitch, seenRrQuantum, seenAgingInterval, seenProcesses, seenExpected, seenMlfqQuanta, seenMlfqBoost,
+            seenCfsLatency, seenCfsMinGranularity, seenHorizon;
+
+    private WorkloadParser(Reader in, String source) {
+        this.in = in;
+        this.source = source;
+    }
+
+    public static CPUScheduler.Workload parse(Path file) throws IOException {
+        try (Reader r = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            return new WorkloadParser(r, file.toString()).readDocument();
+        }
+    }
+
+    public static CPUScheduler.Workload parse(Reader r, String source) throws IOException {
+        return new WorkloadParser(r, source).readDocument();
+    }
+
+    private CPUScheduler.Workload readDocument() throws IOException {
+        skipWhitespace();
+        if (peek() != '{') throw error("expected '{' at start of workload");
+        readValue();
+        skipWhitespace();
+        if (peek() != -1) throw error("unexpected content after end of workload");
+        if (!workload.tasks.isEmpty()) releaseJobs();
+        return workload;
+    }
+
+    // ---- Document walk ----
+
+    private void readValue() throws IOException {
+        skipWhitespace();
+        int c = peek();
+        switch (c) {
+            case '{': readObject(); break;
+            case '[':
+                next();
+                skipWhitespace();
+                if (peek() == ']') { next(); break; }
+                while (true) {
+                    readValue();
+                    if (endOfList(']')) break;
+                }
+                break;
+            case '"': skipString(); break;
+            case 't': literal("true"); break;
+            case 'f': literal("false"); break;
+            case 'n': literal("null"); break;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) skipNumber();
+                else throw error(c == -1 ? "unexpected end of file" : "unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void readObject() throws IOException {
+        next(); // '{'
+        skipWhitespace();
+        if (peek() == '}') { next(); return; }
+        while (true) {
+            switch (readKey()) {
+                case CONTEXT_SWITCH:
+                    if (seenContextSwitch) readValue();
+                    else {
+                        workload.contextSwitch = readInt();
+                        if (workload.contextSwitch < 0) throw error("\"contextSwitch\" must be at least 0");
+                        seenContextSwitch = true;
+                    }
+                    break;
+                case RR_QUANTUM:
+                    if (seenRrQuantum) readValue();
+                    else {
+                        workload.rrQuantum = readInt();
+                        if (workload.rrQuantum < 1) throw error("\"rrQuantum\" must be at least 1");
+                        seenRrQuantum = true;
+                    }
+                    break;
+                case AGING_INTERVAL:
+                    if (seenAgingInterval) readValue();
+                    else {
+                        workload.agingInterval = readInt();
+                        if (workload.agingInterval < 0) throw error("\"agingInterval\" must be at least 0");
+                        seenAgingInterval = true;
+                    }
+                    break;
+                case MLFQ_QUANTA:
+                    if (seenMlfqQuanta) readValue();
+                    else { workload.mlfqQuanta = readQuanta(); seenMlfqQuanta = true; }
+                    break;
+                case MLFQ_BOOST:
+                    if (seenMlfqBoost) readValue();
+                    else {
+                        workload.mlfqBoost = readInt();
+                        if (workload.mlfqBoost < 0) throw error("\"mlfqBoost\" must be at least 0");
+                        seenMlfqBoost = true;
+                    }
+                    break;
+                case CFS_LATENCY:
+                    if (seenCfsLatency) readValue();
+                    else {
+                        workload.cfsLatency = readInt();
+                        if (workload.cfsLatency < 1) throw error("\"cfsLatency\" must be at least 1");
+                        seenCfsLatency = true;
+                    }
+                    break;
+                case CFS_MIN_GRANULARITY:
+                    if (seenCfsMinGranularity) readValue();
+                    else {
+                        workload.cfsMinGranularity = readInt();
+                        if (workload.cfsMinGranularity < 1) throw error("\"cfsMinGranularity\" must be at least 1");
+                        seenCfsMinGranularity = true;
+                    }
+                    break;
+                case HORIZON:
+                    if (seenHorizon) readValue();
+                    else {
+                        workload.horizon = readInt();
+                        if (workload.horizon < 1) throw error("\"horizon\" must be at least 1");
+                        seenHorizon = true;
+                    }
+                    break;
+                case PROCESSES:
+                    skipWhitespace();
+                    if (seenProcesses || peek() != '[') readValue();
+                    else { readProcesses(); seenProcesses = true; }
+                    break;
+                case EXPECTED_OUTPUT:
+                    skipWhitespace();
+                    if (seenExpected || peek() != '{') readValue();
+                    else { readExpected(""); seenExpected = true; }
+                    break;
+                default:
+                    readValue();
+            }
+            if (endOfList('}')) return;
+        }
+    }
+
+    // One MLFQ quantum per level, top level first
+    private int[] readQuanta() throws IOException {
+        List<Integer> quanta = new ArrayList<>();
+        readList(() -> {
+            int q = readInt();
+            if (q < 1) throw error("every \"mlfqQuanta\" value must be at least 1");
+            quanta.add(q);
+        });
+        if (quanta.isEmpty() || quanta.size() > CPUScheduler.MlfqConfig.MAX_LEVELS) {
+            throw error("\"mlfqQuanta\" needs 1 to " + CPUScheduler.MlfqConfig.MAX_LEVELS + " levels");
+        }
+        int[] result = new int[quanta.size()];
+        for (int i = 0; i < result.length; i++) result[i] = quanta.get(i);
+        return result;
+    }
+
+    // CPU and I/O bursts in turn, CPU first and last, every one at least 1
+    private int[] readBursts() throws IOException {
+        List<Integer> bursts = new ArrayList<>();
+        readList(() -> {
+            int b = readInt();
+            if (b < 1) throw error("every \"bursts\" value must be at least 1");
+            bursts.add(b);
+        });
+        if (bursts.size() % 2 == 0) throw error("\"bursts\" must alternate CPU and I/O, starting and ending with CPU");
+        int[] result = new int[bursts.size()];
+        for (int i = 0; i < result.length; i++) result[i] = bursts.get(i);
+        return result;
+    }
+
+    private void readProcesses() throws IOException {
+        next(); // '['
+        skipWhitespace();
+        if (peek() == ']') { next(); return; }
+        while (true) {
+            readProcess();
+            if (endOfList(']')) return;
+        }
+    }
+
+    private void readProcess() throws IOException {
+        skipWhitespace();
+        if (peek() != '{') throw error("expected a process object");
+        int startLine = line, startColumn = column;
+        next();
+
+        String name = null;
+        int arrival = 0, burst = 0, priority = 0, quantum = 0, node = 0, deadline = 0, period = 0;
+        int[] bursts = null;
+        boolean hasArrival = false, hasBurst = false;
+
+        skipWhitespace();
+        if (peek() == '}') {
+            next();
+        } else {
+            while (true) {
+                switch (readKey()) {
+                    case NAME: name = readString(); break;
+                    case ARRIVAL:
+                        arrival = readInt();
+                        if (arrival < 0) throw error("\"arrival\" must be at least 0");
+                        hasArrival = true;
+                        break;
+                    case BURST:
+                        if (bursts != null) throw error("give either \"burst\" or \"bursts\", not both");
+                        burst = readInt();
+                        if (burst < 1) throw error("\"burst\" must be at least 1");
+                        hasBurst = true;
+                        break;
+                    case BURSTS:
+                        if (hasBurst) throw error("give either \"burst\" or \"bursts\", not both");
+                        bursts = readBursts();
+                        break;
+                    case PRIORITY: priority = readInt(); break;
+                    case QUANTUM: quantum = readInt(); workload.hasQuantum = true; break;
+                    case NODE:
+                        node = readInt();
+                        if (node < 0) throw error("\"node\" must be at least 0");
+                        break;
+                    case DEADLINE:
+                        deadline = readInt();
+                        if (deadline < 1) throw error("\"deadline\" must be at least 1");
+                        break;
+                    case PERIOD:
+                        period = readInt();
+                        if (period < 1) throw error("\"period\" must be at least 1");
+                        break;
+                    default: readValue();
+                }
+                if (endOfList('}')) break;
+            }
+        }
+
+        String missing = name == null ? "name" : !hasArrival ? "arrival" : !hasBurst && bursts == null ? "burst" : null;
+        if (missing != null) {
+            throw error(startLine, startColumn, "process is missing \"" + missing + "\"");
+        }
+        if (bursts != null) {
+            long cpu = 0;
+            for (int i = 0; i < bursts.length; i += 2) cpu += bursts[i];
+            if (cpu > Integer.MAX_VALUE) throw error(startLine, startColumn, name + ": CPU bursts add up to more than " + Integer.MAX_VALUE);
+            burst = (int) cpu;
+        }
+        CPUScheduler.Process p = new CPUScheduler.Process(name, arrival, burst, priority, quantum);
+        p.id = workload.processes.size();
+        p.node = node;
+        // A single CPU burst is just a "burst"
+        if (bursts != null && bursts.length > 1) p.bursts = bursts;
+        p.deadline = period > 0 && deadline == 0 ? period : deadline;
+        p.period = period;
+        workload.hasDeadlines |= p.deadline > 0;
+        if (period > 0) workload.tasks.add(p);
+        workload.processes.add(p);
+    }
+
+    // ---- Periodic tasks ----
+
+    // Replaces every periodic task with its jobs, named "<task>#<n>" from 1,
+    // released every period before the horizon. Jobs released together keep
+    // the order of their tasks in the file.
+    private void releaseJobs() throws IOException {
+        long horizon = workload.horizon;
+        if (horizon < 0) {
+            long hyperperiod = 1;
+            int lastFirst = 0;
+            for (CPUScheduler.Process task : workload.tasks) {
+                hyperperiod = lcm(hyperperiod, task.period);
+                if (hyperperiod > MAX_HYPERPERIOD) {
+                    throw new IOException(source + ": the tasks' hyperperiod is over " + MAX_HYPERPERIOD + "; set \"horizon\"");
+                }
+                lastFirst = Math.max(lastFirst, task.arrivalTime);
+            }
+            horizon = lastFirst + hyperperiod;
+        }
+        List<CPUScheduler.Process> jobs = new ArrayList<>();
+        for (CPUScheduler.Process p : workload.processes) {
+            if (p.period == 0) {
+                jobs.add(p);
+                continue;
+            }
+            for (long release = p.arrivalTime, n = 1; release < horizon && release <= Integer.MAX_VALUE; release += p.period, n++) {
+                if (jobs.size() == MAX_JOBS) {
+                    throw new IOException(source + ": periodic tasks release more than " + MAX_JOBS + " jobs before the horizon");
+                }
+                CPUScheduler.Process job = new CPUScheduler.Process(p);
+                job.name = p.name + "#" + n;
+                job.arrivalTime = (int) release;
+                jobs.add(job);
+            }
+        }
+        for (int i = 0; i < jobs.size(); i++) jobs.get(i).id = i;
+        workload.processes = jobs;
+    }
+
+    private static long lcm(long a, long b) {
+        long x = a, y = b;
+        while (y != 0) {
+            long r = x % y;
+            x = y;
+            y = r;
+        }
+        return a / x * b;
+    }
+
+    // ---- Expected output ----
+
+    // Either the result block itself or, at the top level, one block per label.
+    private void readExpected(String label) throws IOException {
+        next(); // '{'
+        CPUScheduler.Expected e = new CPUScheduler.Expected();
+        boolean any = false;
+        skipWhitespace();
+        if (peek() == '}') { next(); return; }
+        while (true) {
+            switch (readKey()) {
+                case EXECUTION_ORDER:
+                    e.executionOrder = new ArrayList<>();
+                    readList(() -> e.executionOrder.add(readString()));
+                    any = true;
+                    break;
+                case PROCESS_RESULTS:
+                    e.processResults = new ArrayList<>();
+                    readList(() -> e.processResults.add(readExpectedResult()));
+                    any = true;
+                    break;
+                case AVERAGE_WAITING_TIME: e.averageWaitingTime = readDouble(); any = true; break;
+                case AVERAGE_TURNAROUND_TIME: e.averageTurnaroundTime = readDouble(); any = true; break;
+                default:
+                    String nested = text.toString();
+                    skipWhitespace();
+                    if (label.isEmpty() && peek() == '{') readExpected(nested);
+                    else readValue();
+            }
+            if (endOfList('}')) break;
+        }
+        if (any) workload.expected.put(label, e);
+    }
+
+    private CPUScheduler.ExpectedResult readExpectedResult() throws IOException {
+        skipWhitespace();
+        if (peek() != '{') throw error("expected a process result object");
+        next();
+        CPUScheduler.ExpectedResult r = new CPUScheduler.ExpectedResult();
+        skipWhitespace();
+        if (peek() == '}') { next(); return r; }
+        while (true) {
+            switch (readKey()) {
+                case NAME: r.name = readString(); break;
+                case WAITING_TIME: r.waitingTime = readInt(); break;
+                case TURNAROUND_TIME: r.turnaroundTime = readInt(); break;
+                case QUANTUM_HISTORY:
+                    r.quantumHistory = new ArrayList<>();
+                    readList(() -> r.quantumHistory.add(readInt()));
+                    break;
+                default: readValue();
+            }
+            if (endOfList('}')) return r;
+        }
+    }
+
+    private interface Element {
+        void read() throws IOException;
+    }
+
+    private void readList(Element element) throws IOException {
+        skipWhitespace();
+        if (peek() != '[') throw error("expected an array");
+        next();
+        skipWhitespace();
+        if (peek() == ']') { next(); return; }
+        while (true) {
+            element.read();
+            if (endOfList(']')) return;
+        }
+    }
+
+    // ---- Tokens ----
+
+    // Reads an object key and its ':'; returns its index in KEYS, or -1 if unknown.
+    // Keys are compared in place so the common ones never allocate a String.
+    private int readKey() throws IOException {
+        text.setLength(0);
+        scanString(true);
+        skipWhitespace();
+        if (peek() != ':') throw error("expected ':' after \"" + text + "\"");
+        next();
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].contentEquals(text)) return i;
+        }
+        return -1;
+    }
+
+    // Consumes the ',' between members, or the closing bracket; returns true at the end.
+    private boolean endOfList(char close) throws IOException {
+        skipWhitespace();
+        int c = peek();
+        if (c == ',') { next(); skipWhitespace(); return false; }
+        if (c == close) { next(); return true; }
+        throw error("expected ',' or '" + close + "'");
+    }
+
+    private int readInt() throws IOException {
+        skipWhitespace();
+        int c = peek();
+        boolean negative = c == '-';
+        if (negative) { next(); c = peek(); }
+        if (c < '0' || c > '9') throw error("expected an integer");
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE + 1L) throw error("integer out of range");
+            next();
+            c = peek();
+        }
+        if (c == '.' || c == 'e' || c == 'E') throw error("expected an integer");
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw error("integer out of range");
+        return (int) value;
+    }
+
+    private double readDouble() throws IOException {
+        skipWhitespace();
+        text.setLength(0);
+        if (peek() != '-' && (peek() < '0' || peek() > '9')) throw error("expected a number");
+        scanNumber(true);
+        return Double.parseDouble(text.toString());
+    }
+
+    private void skipNumber() throws IOException {
+        scanNumber(false);
+    }
+
+    private void scanNumber(boolean keep) throws IOException {
+        if (peek() == '-') take(keep);
+        if (!scanDigits(keep)) throw error("expected a digit");
+        if (peek() == '.') {
+            take(keep);
+            if (!scanDigits(keep)) throw error("expected a digit");
+        }
+        if (peek() == 'e' || peek() == 'E') {
+            take(keep);
+            if (peek() == '+' || peek() == '-') take(keep);
+            if (!scanDigits(keep)) throw error("expected a digit");
+        }
+    }
+
+    private boolean scanDigits(boolean keep) throws IOException {
+        boolean any = false;
+        while (peek() >= '0' && peek() <= '9') { take(keep); any = true; }
+        return any;
+    }
+
+    private void take(boolean keep) throws IOException {
+        if (keep) text.append((char) peek());
+        next();
+    }
+
+    private String readString() throws IOException {
+        text.setLength(0);
+        scanString(true);
+        return text.toString();
+    }
+
+    private void skipString() throws IOException {
+        scanString(false);
+    }
+
+    private void scanString(boolean keep) throws IOException {
+        skipWhitespace();
+        if (peek() != '"') throw error("expected a string");
+        next();
+        while (true) {
+            int c = peek();
+            if (c == -1) throw error("unterminated string");
+            if (c < 0x20) throw error("control character in string");
+            next();
+            if (c == '"') return;
+            if (c == '\\') {
+                int e = peek();
+                switch (e) {
+                    case '"': case '\\': case '/': break;
+                    case 'b': e = '\b'; break;
+                    case 'f': e = '\f'; break;
+                    case 'n': e = '\n'; break;
+                    case 'r': e = '\r'; break;
+                    case 't': e = '\t'; break;
+                    case 'u':
+                        next();
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int d = Character.digit(peek(), 16);
+                            if (peek() == -1 || d < 0) throw error("invalid \\u escape");
+                            code = code * 16 + d;
+                            if (i < 3) next();
+                        }
+                        e = code;
+                        break;
+                    default:
+                        throw error("invalid escape sequence");
+                }
+                next();
+                c = e;
+            }
+            if (keep) text.append((char) c);
+        }
+    }
+
+    private void literal(String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (peek() != word.charAt(i)) throw error("invalid literal, expected " + word);
+            next();
+        }
+    }
+
+    // ---- Character stream ----
+
+    private int peek() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buf[pos];
+    }
+
+    // Only called once peek() has returned the character being consumed
+    private void next() {
+        if (buf[pos++] == '\n') {
+            line++;
+            column = 1;
+        } else {
+            column++;
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+            next();
+        }
+    }
+
+    private IOException error(String message) {
+        return error(line, column, message);
+    }
+
+    private IOException error(int atLine, int atColumn, String message) {
+        return new IOException(source + ": line " + atLine + ", column " + atColumn + ": " + message);
+    }
+}